@@ -0,0 +1,25 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+/**
+ * A {@link LifeCycleAware} whose onCreate method is thread safe and independent from the other
+ * listeners, it's invoked on a background thread in parallel with the onCreate of the other listeners.
+ * All the onCreate methods are completed before the next event (onViewCreated or onStart) is dispatched.
+ */
+public interface AsyncLifeCycleAware<T> extends LifeCycleAware<T> {
+}
@@ -22,4 +22,41 @@ import java.lang.annotation.Target;
 
 @Target(ElementType.FIELD)
 public @interface BindLifeCycle {
+    /**
+     * When true the field must be a Callable or a Provider, the object is obtained on the
+     * first event it receives.
+     */
+    boolean lazy() default false;
+
+    Phase phase() default Phase.IMMEDIATE;
+
+    DispatchThread thread() default DispatchThread.MAIN;
+
+    /**
+     * Optional objects are not critical for the user experience, the startup events are deferred
+     * when they are too slow and a CircuitBreakerPolicy is installed.
+     */
+    boolean optional() default false;
+
+    /**
+     * The object is bound only on devices of the given tier (or of a higher one).
+     */
+    DeviceTier minDeviceTier() default DeviceTier.LOW;
+
+    /**
+     * When true the object is not bound on low RAM devices.
+     */
+    boolean skipOnLowRam() default false;
+
+    /**
+     * The results of the activities started using these request codes are delivered only
+     * to this object.
+     */
+    int[] requestCodes() default {};
+
+    /**
+     * When true the options menu is enabled when the object is bound, hasOptionsMenu is never
+     * invoked on resume.
+     */
+    boolean optionsMenu() default false;
 }
@@ -0,0 +1,32 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+/**
+ * Thread used to invoke the methods of a bound object.
+ */
+public enum DispatchThread {
+    MAIN,
+
+    /**
+     * The methods are invoked in order on a background thread (one for each Activity/Fragment) so it can be
+     * used only for objects that don't touch the UI, for example loggers. The methods that use a Bundle or
+     * the menu are invoked on the main thread: onCreate, onViewCreated and the options menu methods after the
+     * events already posted (only when the object overrides them), onSaveInstanceState without waiting.
+     */
+    BACKGROUND
+}
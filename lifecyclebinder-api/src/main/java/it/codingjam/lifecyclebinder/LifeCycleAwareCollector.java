@@ -21,5 +21,90 @@ import java.util.concurrent.Callable;
 public interface LifeCycleAwareCollector<T> {
     <R extends LifeCycleAware<? super T>> R addRetainedFactory(String key, Callable<R> factory);
 
+    /**
+     * Same as {@link #addRetainedFactory(String, Callable)}, the events mask (see {@link LifeCycleEvents})
+     * lists the methods overridden by declaredType and it's used only when the retained object
+     * is exactly an instance of declaredType.
+     */
+    <R extends LifeCycleAware<? super T>> R addRetainedFactory(String key, Callable<R> factory, Class<?> declaredType, int events);
+
+    /**
+     * Returns the retained object saved with this key (creating it using the factory if needed)
+     * without registering it as listener.
+     */
+    <R extends LifeCycleAware<? super T>> R getRetainedObject(String key, Callable<R> factory);
+
+    /**
+     * Same as {@link #addRetainedFactory(String, Callable)}, the key is the value returned
+     * by {@link RetainedKeys#of(String)}.
+     */
+    <R extends LifeCycleAware<? super T>> R addRetainedFactory(int key, Callable<R> factory);
+
+    <R extends LifeCycleAware<? super T>> R addRetainedFactory(int key, Callable<R> factory, Class<?> declaredType, int events);
+
+    <R extends LifeCycleAware<? super T>> R getRetainedObject(int key, Callable<R> factory);
+
+    /**
+     * Invokes the factory on a background thread after the retained objects with the given keys
+     * (dependencies can be null) are ready. The callback (it can be null) is invoked on the main thread
+     * when the object is ready, then the object is registered as listener.
+     */
+    <R extends LifeCycleAware<? super T>> void addAsyncRetainedFactory(int key, Callable<R> factory, int[] dependencies,
+                                                                       Class<?> declaredType, int events, RetainedObjectCallback<R> callback);
+
+    /**
+     * Registers a placeholder that invokes the factory on the first event in the events mask
+     * (the mask of declaredType, the real object is registered again using its own mask when it's a subclass).
+     * The callback (it can be null) is invoked when the object is created or when it's already retained.
+     */
+    <R extends LifeCycleAware<? super T>> void addLazyRetainedFactory(int key, Callable<R> factory, Class<?> declaredType,
+                                                                      int events, RetainedObjectCallback<R> callback);
+
+    /**
+     * Same as {@link #addLazyRetainedFactory(int, Callable, Class, int, RetainedObjectCallback)}, the object
+     * is obtained from the provider and it's not retained.
+     */
+    <R extends LifeCycleAware<? super T>> void addLazyLifeCycleAware(Callable<R> provider, Class<?> declaredType, int events);
+
+    /**
+     * Same as {@link #addLifeCycleAware(LifeCycleAware, Class, int)}, the startup events
+     * are dispatched using the {@link Phase#DEFERRED} phase.
+     */
+    void addDeferredLifeCycleAware(LifeCycleAware<? super T> lifeCycleAware, Class<?> declaredType, int events);
+
+    /**
+     * Same as {@link #addLifeCycleAware(LifeCycleAware, Class, int)}, the methods are invoked
+     * using the {@link DispatchThread#BACKGROUND} thread.
+     */
+    void addBackgroundLifeCycleAware(LifeCycleAware<? super T> lifeCycleAware, Class<?> declaredType, int events);
+
+    /**
+     * Same as {@link #addLifeCycleAware(LifeCycleAware, Class, int)} for an optional object
+     * (see {@link BindLifeCycle#optional()}).
+     */
+    void addOptionalLifeCycleAware(LifeCycleAware<? super T> lifeCycleAware, Class<?> declaredType, int events);
+
+    /**
+     * Adds a listener, an object already added is ignored. A listener added after onCreate receives
+     * the events already dispatched (onCreate, onViewCreated, onStart and onResume).
+     */
     void addLifeCycleAware(LifeCycleAware<? super T> lifeCycleAware);
+
+    /**
+     * Same as {@link #addLifeCycleAware(LifeCycleAware)}, the events mask (see {@link LifeCycleEvents})
+     * lists the methods overridden by declaredType and it's used only when lifeCycleAware
+     * is exactly an instance of declaredType.
+     */
+    void addLifeCycleAware(LifeCycleAware<? super T> lifeCycleAware, Class<?> declaredType, int events);
+
+    /**
+     * Removes an object added to this collector, returns false when it's not a listener.
+     */
+    boolean removeLifeCycleAware(LifeCycleAware<? super T> lifeCycleAware);
+
+    /**
+     * A muted object doesn't receive the events until it's unmuted, the events dispatched in the
+     * meantime are not replayed.
+     */
+    void setLifeCycleAwareMuted(LifeCycleAware<? super T> lifeCycleAware, boolean muted);
 }
@@ -0,0 +1,33 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+/**
+ * Generated by the annotation processor when the lifecyclebinder.index option is set, it maps
+ * the host classes of a module to their binders without using reflection.
+ */
+public interface LifeCycleBinderIndex {
+    /**
+     * Binary names of the host classes, the position in the array is the id used in {@link #getBinder(int)}.
+     */
+    String[] getHostClassNames();
+
+    /**
+     * Returns the shared instance of the binder, binders are stateless.
+     */
+    ObjectBinder<?, ?> getBinder(int id);
+}
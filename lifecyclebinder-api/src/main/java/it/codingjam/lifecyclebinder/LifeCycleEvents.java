@@ -0,0 +1,60 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+/**
+ * Bit flags identifying the {@link LifeCycleAware} methods. The generated binders use them to
+ * declare which callbacks a bound object actually overrides, so the runtime can skip the others.
+ */
+public final class LifeCycleEvents {
+    public static final int ON_CREATE = 1;
+    public static final int ON_START = 1 << 1;
+    public static final int ON_RESUME = 1 << 2;
+    public static final int HAS_OPTIONS_MENU = 1 << 3;
+    public static final int ON_CREATE_OPTIONS_MENU = 1 << 4;
+    public static final int ON_OPTIONS_ITEM_SELECTED = 1 << 5;
+    public static final int ON_PAUSE = 1 << 6;
+    public static final int ON_STOP = 1 << 7;
+    public static final int ON_SAVE_INSTANCE_STATE = 1 << 8;
+    public static final int ON_DESTROY = 1 << 9;
+    public static final int ON_ACTIVITY_RESULT = 1 << 10;
+    public static final int ON_VIEW_CREATED = 1 << 11;
+    public static final int ON_DESTROY_VIEW = 1 << 12;
+
+    public static final int COUNT = 13;
+
+    public static final int ALL = (1 << COUNT) - 1;
+
+    private static final String[] METHOD_NAMES = {
+            "onCreate", "onStart", "onResume", "hasOptionsMenu", "onCreateOptionsMenu", "onOptionsItemSelected",
+            "onPause", "onStop", "onSaveInstanceState", "onDestroy", "onActivityResult", "onViewCreated", "onDestroyView"
+    };
+
+    private LifeCycleEvents() {
+    }
+
+    public static int indexOf(int event) {
+        return Integer.numberOfTrailingZeros(event);
+    }
+
+    /**
+     * Returns the name of the {@link LifeCycleAware} method of the given event.
+     */
+    public static String getMethodName(int event) {
+        return METHOD_NAMES[indexOf(event)];
+    }
+}
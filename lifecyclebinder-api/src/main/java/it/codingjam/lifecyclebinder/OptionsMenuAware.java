@@ -0,0 +1,31 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.view.Menu;
+
+/**
+ * A {@link LifeCycleAware} that updates its menu items in place, the updates are requested using
+ * LifeCycleBinder.updateOptionsMenu instead of invalidating the whole options menu.
+ */
+public interface OptionsMenuAware<T> extends LifeCycleAware<T> {
+    /**
+     * Invoked on the main thread with the menu created by onCreateOptionsMenu, only the items
+     * added by this object should be changed.
+     */
+    void onUpdateOptionsMenu(T view, Menu menu);
+}
@@ -0,0 +1,33 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+/**
+ * Phase of the startup events (onCreate, onViewCreated, onStart and onResume) of a bound object.
+ */
+public enum Phase {
+    /**
+     * The events are dispatched when the host receives them.
+     */
+    IMMEDIATE,
+
+    /**
+     * The events are dispatched later, when the main thread is idle, the other events
+     * are dispatched after them.
+     */
+    DEFERRED
+}
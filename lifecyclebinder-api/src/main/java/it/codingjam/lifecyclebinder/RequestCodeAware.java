@@ -0,0 +1,27 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+/**
+ * A {@link LifeCycleAware} that receives a request code when it's bound, the code doesn't collide with the
+ * other codes of the Activity/Fragment and the results of that code are delivered only to this listener.
+ * The codes are allocated in the binding order, a retained listener receives the same code after a
+ * configuration change.
+ */
+public interface RequestCodeAware<T> extends LifeCycleAware<T> {
+    void onRequestCodeAllocated(int requestCode);
+}
@@ -23,4 +23,22 @@ import java.lang.annotation.Target;
 @Target(ElementType.FIELD)
 public @interface RetainedObjectProvider {
     String value() default "";
+
+    /**
+     * When true the retained object is created on a background thread, the field is populated
+     * and the object receives the lifecycle events (starting from onCreate) when it's ready.
+     */
+    boolean async() default false;
+
+    /**
+     * Names of the retained objects (provider field names or populated field names) used by this
+     * factory, the factory is invoked after them.
+     */
+    String[] dependsOn() default {};
+
+    /**
+     * When true the factory is invoked (and the field is populated) on the first event the
+     * retained object receives.
+     */
+    boolean lazy() default false;
 }
@@ -0,0 +1,35 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.content.Intent;
+import android.os.Bundle;
+
+/**
+ * A {@link LifeCycleAware} that receives the startup transitions dispatched back to back (for example
+ * onCreate, onStart and onResume of a restored Activity) using a single invocation, onCreate, onViewCreated,
+ * onStart and onResume are not invoked on this object. The transitions are batched only for the objects
+ * bound without lazy, phase, thread and optional parameters and without the lifecyclebinder.dispatcher option.
+ */
+public interface TransitionAware<T> extends LifeCycleAware<T> {
+    /**
+     * Invoked on the main thread, transitions is a mask of {@link LifeCycleEvents#ON_CREATE},
+     * {@link LifeCycleEvents#ON_VIEW_CREATED}, {@link LifeCycleEvents#ON_START} and {@link LifeCycleEvents#ON_RESUME}.
+     * The other parameters are the ones of onCreate.
+     */
+    void onTransitions(T view, int transitions, Bundle savedInstanceState, Intent intent, Bundle arguments);
+}
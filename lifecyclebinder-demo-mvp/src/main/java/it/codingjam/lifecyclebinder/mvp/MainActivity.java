@@ -20,10 +20,11 @@ import android.os.Bundle;
 import android.support.v7.app.AppCompatActivity;
 
 import it.codingjam.lifecyclebinder.BindLifeCycle;
+import it.codingjam.lifecyclebinder.DispatchThread;
 
 public class MainActivity extends AppCompatActivity {
 
-    @BindLifeCycle
+    @BindLifeCycle(thread = DispatchThread.BACKGROUND)
     Logger logger = new Logger();
 
     @Override
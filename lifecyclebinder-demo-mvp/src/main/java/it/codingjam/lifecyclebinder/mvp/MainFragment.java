@@ -28,6 +28,7 @@ import android.widget.TextView;
 import java.util.concurrent.Callable;
 
 import it.codingjam.lifecyclebinder.BindLifeCycle;
+import it.codingjam.lifecyclebinder.DispatchThread;
 import it.codingjam.lifecyclebinder.LifeCycleBinder;
 import it.codingjam.lifecyclebinder.RetainedObjectProvider;
 
@@ -40,7 +41,7 @@ public class MainFragment extends Fragment implements MvpView {
     private TextView title;
     private TextView description;
 
-    @BindLifeCycle
+    @BindLifeCycle(thread = DispatchThread.BACKGROUND)
     Logger logger = new Logger();
 
     @RetainedObjectProvider("presenter")
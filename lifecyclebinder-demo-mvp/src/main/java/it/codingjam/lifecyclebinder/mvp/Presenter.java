@@ -27,14 +27,14 @@ import java.util.concurrent.TimeUnit;
 
 import it.codingjam.lifecyclebinder.BindLifeCycle;
 import it.codingjam.lifecyclebinder.DefaultLifeCycleAware;
+import it.codingjam.lifecyclebinder.DispatchThread;
 import it.codingjam.lifecyclebinder.LifeCycleAware;
+import it.codingjam.lifecyclebinder.RequestCodeAware;
 import rx.Observable;
 import rx.android.schedulers.AndroidSchedulers;
 import rx.functions.Action1;
 
-public class Presenter extends DefaultLifeCycleAware<MvpView> implements LifeCycleAware<MvpView> {
-
-    private static final int SHARE_REQUEST_CODE = 123;
+public class Presenter extends DefaultLifeCycleAware<MvpView> implements LifeCycleAware<MvpView>, RequestCodeAware<MvpView> {
 
     private static final String MODEL = "MODEL";
 
@@ -42,11 +42,18 @@ public class Presenter extends DefaultLifeCycleAware<MvpView> implements LifeCyc
 
     private Model model;
 
-    @BindLifeCycle
+    @BindLifeCycle(thread = DispatchThread.BACKGROUND)
     Logger logger = new Logger();
 
     private boolean loading;
 
+    private int shareRequestCode;
+
+    @Override
+    public void onRequestCodeAllocated(int requestCode) {
+        shareRequestCode = requestCode;
+    }
+
     @Override
     public void onCreate(MvpView view, Bundle savedInstanceState, Intent intent, Bundle arguments) {
         if (model == null) {
@@ -107,14 +114,13 @@ public class Presenter extends DefaultLifeCycleAware<MvpView> implements LifeCyc
     }
 
     public void share() {
-        view.share(model.getNote().getTitle(), SHARE_REQUEST_CODE);
+        view.share(model.getNote().getTitle(), shareRequestCode);
     }
 
     @Override
     public void onActivityResult(MvpView view, int requestCode, int resultCode, Intent data) {
-        if (requestCode == SHARE_REQUEST_CODE) {
-            //...
-        }
+        //only the results of shareRequestCode are delivered to this method
+        //...
     }
 
     @Override
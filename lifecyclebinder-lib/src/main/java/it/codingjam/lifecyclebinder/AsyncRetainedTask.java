@@ -0,0 +1,148 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Creates a retained object on a background thread and delivers it on the main thread to the
+ * current host, the task is saved in the retained objects table so a host recreated because of a
+ * configuration change receives the object created by a task started by the previous instance.
+ */
+class AsyncRetainedTask<T, R extends LifeCycleAware<? super T>> implements Runnable {
+
+    private static final String TAG = "LifeCycleBinder";
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    final int key;
+
+    private Callable<R> factory;
+
+    private LifeCycleHost<T> host;
+
+    private Class<?> declaredType;
+
+    private int events;
+
+    private RetainedObjectCallback<R> callback;
+
+    private final List<AsyncRetainedTask<?, ?>> dependents = new ArrayList<>();
+
+    private int pendingDependencies;
+
+    private boolean started;
+
+    private boolean done;
+
+    private volatile R result;
+
+    private volatile Exception error;
+
+    AsyncRetainedTask(int key) {
+        this.key = key;
+    }
+
+    /**
+     * Sets the host that receives the object, the factory is replaced only if the task is not started yet.
+     */
+    void setHost(LifeCycleHost<T> host, Callable<R> factory, Class<?> declaredType, int events, RetainedObjectCallback<R> callback) {
+        this.host = host;
+        if (!started) {
+            this.factory = factory;
+        }
+        this.declaredType = declaredType;
+        this.events = events;
+        this.callback = callback;
+    }
+
+    boolean isDone() {
+        return done;
+    }
+
+    R getResult() {
+        return result;
+    }
+
+    void detach(LifeCycleHost<?> host) {
+        if (this.host == host) {
+            this.host = null;
+            this.callback = null;
+        }
+    }
+
+    void addDependency(AsyncRetainedTask<?, ?> dependency) {
+        if (!dependency.done) {
+            dependency.dependents.add(this);
+            pendingDependencies++;
+        }
+    }
+
+    /**
+     * Starts the task on a background thread if all the dependencies are ready.
+     */
+    void startIfReady() {
+        if (!started && pendingDependencies == 0 && host != null) {
+            started = true;
+            AsyncTask.THREAD_POOL_EXECUTOR.execute(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            try {
+                result = factory.call();
+            } catch (Exception e) {
+                error = e;
+            }
+            MAIN_HANDLER.post(this);
+        } else {
+            onDone();
+        }
+    }
+
+    /**
+     * Delivers the object to the host, an error is thrown only when a host is attached: when the host has been
+     * destroyed the error is logged and the task is completed without a result (the next host creates it again).
+     */
+    private void onDone() {
+        if (error != null) {
+            if (host != null) {
+                throw new RuntimeException(error);
+            }
+            Log.e(TAG, "Error creating retained object " + key + ", the host has been destroyed", error);
+        }
+        done = true;
+        factory = null;
+        if (host != null) {
+            host.onAsyncRetainedObjectReady(key, result, declaredType, events, callback);
+        }
+        for (AsyncRetainedTask<?, ?> dependent : dependents) {
+            dependent.pendingDependencies--;
+            dependent.startIfReady();
+        }
+        dependents.clear();
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.content.Intent;
+import android.os.AsyncTask;
+import android.util.Log;
+
+/**
+ * Serial queue used to invoke the methods of the {@link DispatchThread#BACKGROUND} listeners of a host,
+ * the events are executed in order on the AsyncTask thread pool. The events are saved in a ring buffer
+ * of parallel arrays, no object is allocated for each event.
+ */
+class BackgroundLane implements Runnable {
+
+    private static final String TAG = "LifeCycleBinder";
+
+    private static final int OBJECT_ARGS = 3;
+
+    private LifeCycleAware[] listeners = new LifeCycleAware[16];
+
+    private int[] events = new int[16];
+
+    private Object[] views = new Object[16];
+
+    private Object[] args = new Object[16 * OBJECT_ARGS];
+
+    private int[] intArgs = new int[16 * 2];
+
+    private int head;
+
+    private int size;
+
+    private boolean draining;
+
+    synchronized void post(int event, LifeCycleAware<?> listener, Object view, Object arg1, Object arg2, Object arg3, int int1, int int2) {
+        if (size == events.length) {
+            grow();
+        }
+        int slot = (head + size) & (events.length - 1);
+        listeners[slot] = listener;
+        events[slot] = event;
+        views[slot] = view;
+        args[slot * OBJECT_ARGS] = arg1;
+        args[slot * OBJECT_ARGS + 1] = arg2;
+        args[slot * OBJECT_ARGS + 2] = arg3;
+        intArgs[slot * 2] = int1;
+        intArgs[slot * 2 + 1] = int2;
+        size++;
+        if (!draining) {
+            draining = true;
+            AsyncTask.THREAD_POOL_EXECUTOR.execute(this);
+        }
+    }
+
+    /**
+     * Blocks until the events already posted are executed.
+     */
+    synchronized void await() {
+        boolean interrupted = false;
+        while (draining) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void grow() {
+        int capacity = events.length;
+        LifeCycleAware[] newListeners = new LifeCycleAware[capacity * 2];
+        int[] newEvents = new int[capacity * 2];
+        Object[] newViews = new Object[capacity * 2];
+        Object[] newArgs = new Object[capacity * 2 * OBJECT_ARGS];
+        int[] newIntArgs = new int[capacity * 4];
+        for (int i = 0; i < size; i++) {
+            int slot = (head + i) & (capacity - 1);
+            newListeners[i] = listeners[slot];
+            newEvents[i] = events[slot];
+            newViews[i] = views[slot];
+            System.arraycopy(args, slot * OBJECT_ARGS, newArgs, i * OBJECT_ARGS, OBJECT_ARGS);
+            System.arraycopy(intArgs, slot * 2, newIntArgs, i * 2, 2);
+        }
+        listeners = newListeners;
+        events = newEvents;
+        views = newViews;
+        args = newArgs;
+        intArgs = newIntArgs;
+        head = 0;
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            LifeCycleAware listener;
+            int event;
+            Object view;
+            Object arg1;
+            Object arg2;
+            Object arg3;
+            int int1;
+            int int2;
+            synchronized (this) {
+                if (size == 0) {
+                    draining = false;
+                    notifyAll();
+                    return;
+                }
+                listener = listeners[head];
+                event = events[head];
+                view = views[head];
+                arg1 = args[head * OBJECT_ARGS];
+                arg2 = args[head * OBJECT_ARGS + 1];
+                arg3 = args[head * OBJECT_ARGS + 2];
+                int1 = intArgs[head * 2];
+                int2 = intArgs[head * 2 + 1];
+                listeners[head] = null;
+                views[head] = null;
+                args[head * OBJECT_ARGS] = null;
+                args[head * OBJECT_ARGS + 1] = null;
+                args[head * OBJECT_ARGS + 2] = null;
+                head = (head + 1) & (events.length - 1);
+                size--;
+            }
+            try {
+                dispatch(listener, event, view, arg1, arg2, arg3, int1, int2);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error invoking background listener " + listener, e);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void dispatch(LifeCycleAware listener, int event, Object view, Object arg1, Object arg2, Object arg3,
+                                 int int1, int int2) {
+        switch (event) {
+            case LifeCycleEvents.ON_START:
+                listener.onStart(view);
+                break;
+            case LifeCycleEvents.ON_RESUME:
+                listener.onResume(view);
+                break;
+            case LifeCycleEvents.ON_PAUSE:
+                listener.onPause(view);
+                break;
+            case LifeCycleEvents.ON_STOP:
+                listener.onStop(view);
+                break;
+            case LifeCycleEvents.ON_DESTROY_VIEW:
+                listener.onDestroyView(view);
+                break;
+            case LifeCycleEvents.ON_DESTROY:
+                listener.onDestroy(view, int1 != 0);
+                break;
+            case LifeCycleEvents.ON_ACTIVITY_RESULT:
+                listener.onActivityResult(view, int1, int2, (Intent) arg1);
+                break;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuInflater;
+import android.view.MenuItem;
+
+/**
+ * Registered in place of a {@link DispatchThread#BACKGROUND} listener, it posts the events
+ * to the {@link BackgroundLane} of the host. The Bundle and the Menu are not thread safe and the returned
+ * values are used by the host so onCreate, onViewCreated and the options menu methods are invoked on the main
+ * thread when the events already posted are executed, only when they are in the events of the listener.
+ * onSaveInstanceState is invoked on the main thread without waiting, the listener writes into a copy that
+ * is added to the saved state.
+ */
+class BackgroundLifeCycleAware<T> implements LifeCycleAware<T> {
+
+    private final LifeCycleAware<? super T> listener;
+
+    private final BackgroundLane lane;
+
+    private final int events;
+
+    BackgroundLifeCycleAware(LifeCycleAware<? super T> listener, BackgroundLane lane, int events) {
+        this.listener = listener;
+        this.lane = lane;
+        this.events = events;
+    }
+
+    /**
+     * Waits for the events already posted, returns false when the listener doesn't override the method.
+     */
+    private boolean awaitEvent(int event) {
+        if ((events & event) == 0) {
+            return false;
+        }
+        lane.await();
+        return true;
+    }
+
+    @Override
+    public void onCreate(T view, Bundle savedInstanceState, Intent intent, Bundle arguments) {
+        if (awaitEvent(LifeCycleEvents.ON_CREATE)) {
+            listener.onCreate(view, savedInstanceState, intent, arguments);
+        }
+    }
+
+    @Override
+    public void onViewCreated(T view, Bundle savedInstanceState) {
+        if (awaitEvent(LifeCycleEvents.ON_VIEW_CREATED)) {
+            listener.onViewCreated(view, savedInstanceState);
+        }
+    }
+
+    @Override
+    public void onStart(T view) {
+        lane.post(LifeCycleEvents.ON_START, listener, view, null, null, null, 0, 0);
+    }
+
+    @Override
+    public void onResume(T view) {
+        lane.post(LifeCycleEvents.ON_RESUME, listener, view, null, null, null, 0, 0);
+    }
+
+    @Override
+    public boolean hasOptionsMenu(T view) {
+        return awaitEvent(LifeCycleEvents.HAS_OPTIONS_MENU) && listener.hasOptionsMenu(view);
+    }
+
+    @Override
+    public void onCreateOptionsMenu(T view, Menu menu, MenuInflater inflater) {
+        if (awaitEvent(LifeCycleEvents.ON_CREATE_OPTIONS_MENU)) {
+            listener.onCreateOptionsMenu(view, menu, inflater);
+        }
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(T view, MenuItem item) {
+        return awaitEvent(LifeCycleEvents.ON_OPTIONS_ITEM_SELECTED) && listener.onOptionsItemSelected(view, item);
+    }
+
+    @Override
+    public void onPause(T view) {
+        lane.post(LifeCycleEvents.ON_PAUSE, listener, view, null, null, null, 0, 0);
+    }
+
+    @Override
+    public void onStop(T view) {
+        lane.post(LifeCycleEvents.ON_STOP, listener, view, null, null, null, 0, 0);
+    }
+
+    @Override
+    public void onSaveInstanceState(T view, Bundle bundle) {
+        if ((events & LifeCycleEvents.ON_SAVE_INSTANCE_STATE) != 0) {
+            Bundle state = new Bundle();
+            listener.onSaveInstanceState(view, state);
+            bundle.putAll(state);
+        }
+    }
+
+    @Override
+    public void onDestroyView(T view) {
+        lane.post(LifeCycleEvents.ON_DESTROY_VIEW, listener, view, null, null, null, 0, 0);
+    }
+
+    @Override
+    public void onDestroy(T view, boolean changingConfigurations) {
+        lane.post(LifeCycleEvents.ON_DESTROY, listener, view, null, null, null, changingConfigurations ? 1 : 0, 0);
+    }
+
+    @Override
+    public void onActivityResult(T view, int requestCode, int resultCode, Intent data) {
+        lane.post(LifeCycleEvents.ON_ACTIVITY_RESULT, listener, view, data, null, null, requestCode, resultCode);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns an int id to every binder, ids are resolved using the installed
+ * {@link LifeCycleBinderIndex} objects and, for classes not included in an index, using reflection.
+ * The result of the lookup is cached (also when no binder is found) so it's executed only
+ * once for each class. Binders are stateless, the same instance is used for all the bind invocations.
+ */
+class BinderRegistry {
+    static final int NO_BINDER = -1;
+
+    private static final Map<String, Integer> idsByName = new HashMap<>();
+
+    private static final Map<Class<?>, Integer> idsByClass = new IdentityHashMap<>();
+
+    private static final Map<Class<?>, Integer> idsByBinderClass = new IdentityHashMap<>();
+
+    private static final List<BinderFactory> factories = new ArrayList<>();
+
+    static synchronized void installIndex(LifeCycleBinderIndex index) {
+        String[] hostClassNames = index.getHostClassNames();
+        for (int i = 0; i < hostClassNames.length; i++) {
+            idsByName.put(hostClassNames[i], addFactory(new BinderFactory(index, i, null)));
+        }
+        idsByClass.clear();
+    }
+
+    static synchronized int getBinderId(Class<?> hostClass) {
+        Integer id = idsByClass.get(hostClass);
+        if (id == null) {
+            id = findBinderId(hostClass);
+            idsByClass.put(hostClass, id);
+        }
+        return id;
+    }
+
+    static synchronized int getBinderIdOfBinderClass(Class<?> objectBinderClass) {
+        Integer id = idsByBinderClass.get(objectBinderClass);
+        if (id == null) {
+            id = addFactory(new BinderFactory(null, 0, objectBinderClass));
+            idsByBinderClass.put(objectBinderClass, id);
+        }
+        return id;
+    }
+
+    static synchronized <T> ObjectBinder<T, T> getBinder(int id) {
+        return (ObjectBinder<T, T>) factories.get(id).getBinder();
+    }
+
+    private static int findBinderId(Class<?> hostClass) {
+        for (Class<?> c = hostClass; c != null && !isFrameworkClass(c); c = c.getSuperclass()) {
+            Integer id = c == hostClass ? null : idsByClass.get(c);
+            if (id == null) {
+                id = idsByName.get(c.getName());
+            }
+            if (id == null) {
+                Class<?> objectBinderClass = ReflectionUtils.findObjectBinderClass(c);
+                if (objectBinderClass != null) {
+                    id = getBinderIdOfBinderClass(objectBinderClass);
+                }
+            }
+            if (id != null) {
+                return id;
+            }
+        }
+        return NO_BINDER;
+    }
+
+    private static boolean isFrameworkClass(Class<?> c) {
+        String name = c.getName();
+        return name.startsWith("android.") || name.startsWith("java.");
+    }
+
+    private static int addFactory(BinderFactory factory) {
+        factories.add(factory);
+        return factories.size() - 1;
+    }
+
+    private static class BinderFactory {
+        private final LifeCycleBinderIndex index;
+        private final int indexId;
+        private final Class<?> objectBinderClass;
+        private ObjectBinder<?, ?> binder;
+
+        BinderFactory(LifeCycleBinderIndex index, int indexId, Class<?> objectBinderClass) {
+            this.index = index;
+            this.indexId = indexId;
+            this.objectBinderClass = objectBinderClass;
+        }
+
+        ObjectBinder<?, ?> getBinder() {
+            if (binder == null) {
+                if (index != null) {
+                    binder = index.getBinder(indexId);
+                } else {
+                    binder = ReflectionUtils.getInstance(objectBinderClass);
+                }
+            }
+            return binder;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+/**
+ * Static methods invoked by the generated binders, they are not part of the {@link LifeCycleAwareCollector}
+ * interface because they are used only by the generated code.
+ */
+public final class BinderSupport {
+
+    private BinderSupport() {
+    }
+
+    /**
+     * Returns true when the device is at least of the given tier (and it's not a low RAM
+     * device if skipOnLowRam is true), it's used by the fields bound conditionally.
+     */
+    public static boolean matchesDevice(LifeCycleAwareCollector<?> collector, DeviceTier minDeviceTier, boolean skipOnLowRam) {
+        return DeviceProfile.get(host(collector).view).matches(minDeviceTier, skipOnLowRam);
+    }
+
+    /**
+     * Routes the results of the given request codes to the listener, it's used by the fields
+     * annotated with {@link BindLifeCycle#requestCodes()}.
+     */
+    public static <T> void addRequestCodes(LifeCycleAwareCollector<T> collector, LifeCycleAware<? super T> lifeCycleAware,
+                                           int[] requestCodes) {
+        host(collector).addRequestCodes(lifeCycleAware, requestCodes);
+    }
+
+    /**
+     * Enables the options menu, it's used by the fields annotated with {@link BindLifeCycle#optionsMenu()}.
+     */
+    public static void setHasOptionsMenu(LifeCycleAwareCollector<?> collector) {
+        host(collector).setHasOptionsMenu();
+    }
+
+    private static <T> LifeCycleHost<T> host(LifeCycleAwareCollector<T> collector) {
+        return (LifeCycleHost<T>) collector;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures the startup callbacks (onCreate, onViewCreated, onStart and onResume) of the optional listeners
+ * (see {@link BindLifeCycle#optional()}), a listener class that exceeds the budget too many times is demoted:
+ * its startup events are dispatched using the {@link Phase#DEFERRED} phase or it's not bound anymore.
+ * The policy is used only when it's installed using {@link LifeCycleBinder#setCircuitBreakerPolicy(CircuitBreakerPolicy)}.
+ */
+public class CircuitBreakerPolicy {
+
+    private static final String TAG = "LifeCycleBinder";
+
+    public enum Demotion {
+        DEFERRED,
+
+        /**
+         * The listener is not bound to the Activities/Fragments created after the demotion, the
+         * instances already bound use the deferred phase.
+         */
+        DISABLED
+    }
+
+    public interface DemotionListener {
+        void onListenerDemoted(Class<?> listenerClass, Demotion demotion, int overruns);
+    }
+
+    private final long budgetNanos;
+
+    private final int maxOverruns;
+
+    private final Demotion demotion;
+
+    private final Map<Class<?>, State> states = new HashMap<>();
+
+    private volatile DemotionListener demotionListener;
+
+    public CircuitBreakerPolicy(long budgetMillis, int maxOverruns, Demotion demotion) {
+        this.budgetNanos = budgetMillis * 1000 * 1000;
+        this.maxOverruns = maxOverruns;
+        this.demotion = demotion;
+    }
+
+    public void setDemotionListener(DemotionListener demotionListener) {
+        this.demotionListener = demotionListener;
+    }
+
+    /**
+     * Returns the demotion of the given listener class, null if it's not demoted.
+     */
+    public Demotion getDemotion(Class<?> listenerClass) {
+        return getState(listenerClass).demotion;
+    }
+
+    synchronized State getState(Class<?> listenerClass) {
+        State state = states.get(listenerClass);
+        if (state == null) {
+            state = new State(listenerClass);
+            states.put(listenerClass, state);
+        }
+        return state;
+    }
+
+    void record(State state, long nanos) {
+        if (nanos <= budgetNanos) {
+            return;
+        }
+        int overruns;
+        synchronized (state) {
+            overruns = ++state.overruns;
+            if (overruns < maxOverruns || state.demotion != null) {
+                return;
+            }
+            state.demotion = demotion;
+        }
+        Log.w(TAG, state.listenerClass.getName() + " demoted to " + demotion + " after " + overruns + " callbacks over budget");
+        DemotionListener listener = demotionListener;
+        if (listener != null) {
+            listener.onListenerDemoted(state.listenerClass, demotion, overruns);
+        }
+    }
+
+    static class State {
+        final Class<?> listenerClass;
+
+        int overruns;
+
+        volatile Demotion demotion;
+
+        State(Class<?> listenerClass) {
+            this.listenerClass = listenerClass;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+/**
+ * {@link LifeCycleMonitor} that forwards the durations to other monitors, it can be used to install
+ * more than one monitor (for example a {@link FlightRecorder} and a {@link HistogramLifeCycleMonitor}).
+ */
+public class CompositeLifeCycleMonitor implements LifeCycleMonitor {
+
+    private final LifeCycleMonitor[] monitors;
+
+    public CompositeLifeCycleMonitor(LifeCycleMonitor... monitors) {
+        this.monitors = monitors.clone();
+    }
+
+    @Override
+    public void onBind(Class<?> hostClass, long wallNanos, long threadCpuNanos) {
+        for (LifeCycleMonitor monitor : monitors) {
+            monitor.onBind(hostClass, wallNanos, threadCpuNanos);
+        }
+    }
+
+    @Override
+    public void onCallbackStart(Class<?> hostClass, Class<?> listenerClass, int event) {
+        for (LifeCycleMonitor monitor : monitors) {
+            monitor.onCallbackStart(hostClass, listenerClass, event);
+        }
+    }
+
+    @Override
+    public void onCallback(Class<?> hostClass, Class<?> listenerClass, int event, long wallNanos, long threadCpuNanos) {
+        for (LifeCycleMonitor monitor : monitors) {
+            monitor.onCallback(hostClass, listenerClass, event, wallNanos, threadCpuNanos);
+        }
+    }
+}
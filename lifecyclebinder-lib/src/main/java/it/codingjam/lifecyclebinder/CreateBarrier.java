@@ -0,0 +1,126 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the onCreate methods of the {@link AsyncLifeCycleAware} listeners on a small thread pool owned by
+ * the library, the host waits for them using {@link #await()} before dispatching the next event. The tasks
+ * not started yet when the host waits are executed on the calling thread, so the main thread never waits
+ * for tasks queued behind other work.
+ */
+class CreateBarrier {
+
+    private static final int THREADS = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, 3));
+
+    private static ThreadPoolExecutor executor;
+
+    private final CountDownLatch latch;
+
+    private final List<Task> tasks;
+
+    private volatile Throwable error;
+
+    CreateBarrier(int count) {
+        latch = new CountDownLatch(count);
+        tasks = new ArrayList<>(count);
+    }
+
+    private static synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(THREADS, THREADS, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                    new ThreadFactory() {
+                        private final AtomicInteger count = new AtomicInteger();
+
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "LifeCycleBinder create #" + count.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    void execute(Runnable runnable) {
+        Task task = new Task(runnable);
+        tasks.add(task);
+        getExecutor().execute(task);
+    }
+
+    /**
+     * Waits for all the tasks, an exception thrown by a task is rethrown on the calling thread.
+     */
+    void await() {
+        for (Task task : tasks) {
+            task.run();
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (error != null) {
+            throw new RuntimeException(error);
+        }
+    }
+
+    /**
+     * A task is executed only once, by a thread of the pool or by the thread that waits for the barrier.
+     */
+    private class Task implements Runnable {
+        private final Runnable runnable;
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        Task(Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                runnable.run();
+            } catch (Throwable t) {
+                error = t;
+            } finally {
+                latch.countDown();
+            }
+        }
+    }
+}
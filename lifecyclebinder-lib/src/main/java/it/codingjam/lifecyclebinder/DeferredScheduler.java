@@ -0,0 +1,126 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import java.util.ArrayDeque;
+
+/**
+ * Runs the events of the {@link Phase#DEFERRED} listeners on the main thread when it's idle,
+ * the events are executed in order and every slice runs for at most the frame budget. When some events
+ * are still pending the next slice is executed after the next frame.
+ */
+class DeferredScheduler implements MessageQueue.IdleHandler, Runnable {
+
+    private static final DeferredScheduler INSTANCE = new DeferredScheduler();
+
+    private final ArrayDeque<DeferredEvent> events = new ArrayDeque<>();
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    private long frameBudgetMillis = 4;
+
+    private boolean scheduled;
+
+    private Object frameCallback;
+
+    static DeferredScheduler get() {
+        return INSTANCE;
+    }
+
+    void setFrameBudget(long millis) {
+        frameBudgetMillis = millis;
+    }
+
+    void enqueue(DeferredEvent event) {
+        events.add(event);
+        if (!scheduled) {
+            scheduled = true;
+            Looper.myQueue().addIdleHandler(this);
+        }
+    }
+
+    @Override
+    public boolean queueIdle() {
+        long end = SystemClock.uptimeMillis() + frameBudgetMillis;
+        DeferredEvent event;
+        while ((event = events.poll()) != null) {
+            event.run();
+            if (SystemClock.uptimeMillis() >= end) {
+                break;
+            }
+        }
+        scheduled = !events.isEmpty();
+        if (scheduled) {
+            scheduleNextFrame();
+        }
+        return false;
+    }
+
+    private void scheduleNextFrame() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            postFrameCallback();
+        } else {
+            handler.post(this);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void postFrameCallback() {
+        if (frameCallback == null) {
+            frameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    handler.post(DeferredScheduler.this);
+                }
+            };
+        }
+        Choreographer.getInstance().postFrameCallback((Choreographer.FrameCallback) frameCallback);
+    }
+
+    /**
+     * Invoked after the next frame, the idle handler is added again to run the next slice.
+     */
+    @Override
+    public void run() {
+        Looper.myQueue().addIdleHandler(this);
+    }
+
+    /**
+     * An event of a deferred listener, it's executed by the scheduler or by the host when the host
+     * needs to dispatch an event that must be invoked after it.
+     */
+    abstract static class DeferredEvent {
+        private boolean done;
+
+        final void run() {
+            if (!done) {
+                done = true;
+                dispatch();
+            }
+        }
+
+        abstract void dispatch();
+    }
+}
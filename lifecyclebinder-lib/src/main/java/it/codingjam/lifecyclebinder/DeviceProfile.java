@@ -0,0 +1,84 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.os.Build;
+import android.support.v4.app.Fragment;
+
+/**
+ * Tier and low RAM flag of the device, they are calculated on the first use and cached for the
+ * whole process.
+ */
+final class DeviceProfile {
+
+    private static final long GB = 1024L * 1024 * 1024;
+
+    private static volatile DeviceProfile instance;
+
+    final DeviceTier tier;
+
+    final boolean lowRam;
+
+    private DeviceProfile(DeviceTier tier, boolean lowRam) {
+        this.tier = tier;
+        this.lowRam = lowRam;
+    }
+
+    static DeviceProfile get(Object view) {
+        DeviceProfile profile = instance;
+        if (profile == null) {
+            Context context = view instanceof Fragment ? ((Fragment) view).getActivity() : (Context) view;
+            profile = create((ActivityManager) context.getApplicationContext().getSystemService(Context.ACTIVITY_SERVICE));
+            instance = profile;
+        }
+        return profile;
+    }
+
+    static void set(DeviceTier tier, boolean lowRam) {
+        instance = new DeviceProfile(tier, lowRam);
+    }
+
+    boolean matches(DeviceTier minDeviceTier, boolean skipOnLowRam) {
+        return tier.compareTo(minDeviceTier) >= 0 && !(skipOnLowRam && lowRam);
+    }
+
+    private static DeviceProfile create(ActivityManager activityManager) {
+        boolean lowRam;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            lowRam = activityManager.isLowRamDevice();
+        } else {
+            lowRam = activityManager.getMemoryClass() <= 32;
+        }
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+            return new DeviceProfile(DeviceTier.LOW, lowRam);
+        }
+        ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+        activityManager.getMemoryInfo(memoryInfo);
+        int cores = Runtime.getRuntime().availableProcessors();
+        DeviceTier tier;
+        if (lowRam || memoryInfo.totalMem < 2 * GB || cores <= 2) {
+            tier = DeviceTier.LOW;
+        } else if (memoryInfo.totalMem >= 4 * GB && cores >= 6) {
+            tier = DeviceTier.HIGH;
+        } else {
+            tier = DeviceTier.MEDIUM;
+        }
+        return new DeviceProfile(tier, lowRam);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.os.Process;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+import static it.codingjam.lifecyclebinder.FlightRecorderReader.COUNT_OFFSET;
+import static it.codingjam.lifecyclebinder.FlightRecorderReader.HEADER_SIZE;
+import static it.codingjam.lifecyclebinder.FlightRecorderReader.NAMES_SIZE_OFFSET;
+import static it.codingjam.lifecyclebinder.FlightRecorderReader.RECORD_SIZE;
+import static it.codingjam.lifecyclebinder.FlightRecorderReader.TYPE_BIND;
+import static it.codingjam.lifecyclebinder.FlightRecorderReader.TYPE_CALLBACK;
+import static it.codingjam.lifecyclebinder.FlightRecorderReader.TYPE_CALLBACK_START;
+
+/**
+ * {@link LifeCycleMonitor} that writes the binds and the callbacks (start and end) in a ring of fixed size
+ * records of a memory mapped file. The pages are written by the kernel, the last records survive
+ * when the process is killed (for example because of an ANR or an out of memory error).
+ * The file of the previous process is moved to {@link #getPreviousFile(File)}, it can be decoded
+ * using {@link FlightRecorderReader}.
+ */
+public class FlightRecorder implements LifeCycleMonitor {
+
+    private static final int NAMES_CAPACITY = 32 * 1024;
+
+    private final MappedByteBuffer buffer;
+
+    private final int capacity;
+
+    private final long startNanos = System.nanoTime();
+
+    private final Map<Class<?>, Short> ids = new HashMap<>();
+
+    private long count;
+
+    private int namesSize;
+
+    public FlightRecorder(File file, int capacity) throws IOException {
+        this.capacity = capacity;
+        if (file.exists() && !file.renameTo(getPreviousFile(file))) {
+            throw new IOException("Can't rename " + file);
+        }
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + capacity * RECORD_SIZE + NAMES_CAPACITY);
+        } finally {
+            randomAccessFile.close();
+        }
+        buffer.putInt(0, FlightRecorderReader.MAGIC);
+        buffer.putInt(4, FlightRecorderReader.VERSION);
+        buffer.putInt(FlightRecorderReader.CAPACITY_OFFSET, capacity);
+        buffer.putInt(FlightRecorderReader.NAMES_CAPACITY_OFFSET, NAMES_CAPACITY);
+        buffer.putLong(FlightRecorderReader.START_TIME_OFFSET, System.currentTimeMillis());
+    }
+
+    public static File getPreviousFile(File file) {
+        return new File(file.getPath() + ".prev");
+    }
+
+    @Override
+    public void onBind(Class<?> hostClass, long wallNanos, long threadCpuNanos) {
+        write(TYPE_BIND, hostClass, null, 0, wallNanos, threadCpuNanos);
+    }
+
+    @Override
+    public void onCallbackStart(Class<?> hostClass, Class<?> listenerClass, int event) {
+        write(TYPE_CALLBACK_START, hostClass, listenerClass, event, 0, 0);
+    }
+
+    @Override
+    public void onCallback(Class<?> hostClass, Class<?> listenerClass, int event, long wallNanos, long threadCpuNanos) {
+        write(TYPE_CALLBACK, hostClass, listenerClass, event, wallNanos, threadCpuNanos);
+    }
+
+    /**
+     * Writes a record, the sequence number of the overwritten record is cleared first and the new one
+     * and the number of records are written last so the reader can skip a partially written record.
+     */
+    private synchronized void write(int type, Class<?> hostClass, Class<?> listenerClass, int event, long wallNanos, long threadCpuNanos) {
+        int offset = HEADER_SIZE + (int) (count % capacity) * RECORD_SIZE;
+        buffer.putInt(offset + 8, 0);
+        buffer.putLong(offset, System.nanoTime() - startNanos);
+        buffer.putShort(offset + 12, getId(hostClass));
+        buffer.putShort(offset + 14, listenerClass != null ? getId(listenerClass) : -1);
+        buffer.put(offset + 16, (byte) type);
+        buffer.put(offset + 17, (byte) LifeCycleEvents.indexOf(event));
+        buffer.putInt(offset + 20, (int) Math.min(wallNanos / 1000, Integer.MAX_VALUE));
+        buffer.putInt(offset + 24, (int) Math.min(threadCpuNanos / 1000, Integer.MAX_VALUE));
+        buffer.putInt(offset + 28, Process.myTid());
+        count++;
+        buffer.putInt(offset + 8, (int) count);
+        buffer.putLong(COUNT_OFFSET, count);
+    }
+
+    /**
+     * Returns the position of the class name in the names table, -1 when the table is full.
+     */
+    private short getId(Class<?> c) {
+        Short id = ids.get(c);
+        if (id == null) {
+            byte[] name = c.getName().getBytes(FlightRecorderReader.UTF_8);
+            if (namesSize + 2 + name.length > NAMES_CAPACITY || ids.size() == Short.MAX_VALUE) {
+                return -1;
+            }
+            int offset = HEADER_SIZE + capacity * RECORD_SIZE + namesSize;
+            buffer.putShort(offset, (short) name.length);
+            for (int i = 0; i < name.length; i++) {
+                buffer.put(offset + 2 + i, name[i]);
+            }
+            namesSize += 2 + name.length;
+            buffer.putInt(NAMES_SIZE_OFFSET, namesSize);
+            id = (short) ids.size();
+            ids.put(c, id);
+        }
+        return id;
+    }
+}
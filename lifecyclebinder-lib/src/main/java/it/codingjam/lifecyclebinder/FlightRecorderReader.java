@@ -0,0 +1,190 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Decodes the files written by {@link FlightRecorder}, it uses only the Java standard library so it
+ * can be executed outside Android: {@code java -cp lifecyclebinder-api.jar:classes.jar it.codingjam.lifecyclebinder.FlightRecorderReader file}.
+ * <p>
+ * The file contains a header, a ring of fixed size records and a table of the class names.
+ * Header: magic, version, capacity (records), names capacity (bytes), start time (millis), records
+ * written, names size (bytes). Record: time since the start (nanos), sequence number, host id, listener id,
+ * type, event index, wall time and thread cpu time (micros), thread id. Name: length and UTF-8 bytes,
+ * the id is the position in the table.
+ */
+public class FlightRecorderReader {
+
+    static final int MAGIC = 0x4c434652;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 64;
+
+    static final int RECORD_SIZE = 32;
+
+    static final int CAPACITY_OFFSET = 8;
+
+    static final int NAMES_CAPACITY_OFFSET = 12;
+
+    static final int START_TIME_OFFSET = 16;
+
+    static final int COUNT_OFFSET = 24;
+
+    static final int NAMES_SIZE_OFFSET = 32;
+
+    static final int TYPE_CALLBACK_START = 1;
+
+    static final int TYPE_CALLBACK = 2;
+
+    static final int TYPE_BIND = 3;
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    public static class Record {
+        /**
+         * Wall clock time of the record in milliseconds.
+         */
+        public final long timeMillis;
+
+        public final long timeNanos;
+
+        public final String type;
+
+        public final String hostClass;
+
+        /**
+         * The listener class, null for the bind records.
+         */
+        public final String listenerClass;
+
+        /**
+         * The method of the callback, null for the bind records.
+         */
+        public final String method;
+
+        public final long wallMicros;
+
+        public final long threadCpuMicros;
+
+        public final int threadId;
+
+        Record(long timeMillis, long timeNanos, String type, String hostClass, String listenerClass, String method,
+               long wallMicros, long threadCpuMicros, int threadId) {
+            this.timeMillis = timeMillis;
+            this.timeNanos = timeNanos;
+            this.type = type;
+            this.hostClass = hostClass;
+            this.listenerClass = listenerClass;
+            this.method = method;
+            this.wallMicros = wallMicros;
+            this.threadCpuMicros = threadCpuMicros;
+            this.threadId = threadId;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder b = new StringBuilder(String.format(Locale.US, "%d.%06d [%d] %s %s",
+                    timeNanos / 1000000000, timeNanos / 1000 % 1000000, threadId, type, hostClass));
+            if (listenerClass != null) {
+                b.append(' ').append(listenerClass).append('.').append(method);
+            }
+            if (wallMicros >= 0) {
+                b.append(String.format(Locale.US, " wall=%dus cpu=%dus", wallMicros, threadCpuMicros));
+            }
+            return b.toString();
+        }
+    }
+
+    /**
+     * Returns the records saved in the file from the oldest to the newest, the records partially
+     * written when the process was killed are skipped.
+     */
+    public static List<Record> read(File file) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        ByteBuffer buffer;
+        try {
+            buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, randomAccessFile.length());
+        } finally {
+            randomAccessFile.close();
+        }
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a flight recorder file: " + file);
+        }
+        int capacity = buffer.getInt(CAPACITY_OFFSET);
+        long startTime = buffer.getLong(START_TIME_OFFSET);
+        long count = buffer.getLong(COUNT_OFFSET);
+        List<String> names = readNames(buffer, HEADER_SIZE + capacity * RECORD_SIZE, buffer.getInt(NAMES_SIZE_OFFSET));
+
+        List<Record> records = new ArrayList<>();
+        for (long i = Math.max(0, count - capacity); i < count; i++) {
+            int offset = HEADER_SIZE + (int) (i % capacity) * RECORD_SIZE;
+            if (buffer.getInt(offset + 8) != (int) (i + 1)) {
+                continue;
+            }
+            long timeNanos = buffer.getLong(offset);
+            int type = buffer.get(offset + 16);
+            records.add(new Record(startTime + timeNanos / 1000000, timeNanos,
+                    type == TYPE_BIND ? "bind" : type == TYPE_CALLBACK_START ? "start" : "end",
+                    getName(names, buffer.getShort(offset + 12)),
+                    type == TYPE_BIND ? null : getName(names, buffer.getShort(offset + 14)),
+                    type == TYPE_BIND ? null : LifeCycleEvents.getMethodName(1 << buffer.get(offset + 17)),
+                    type == TYPE_CALLBACK_START ? -1 : buffer.getInt(offset + 20),
+                    type == TYPE_CALLBACK_START ? -1 : buffer.getInt(offset + 24),
+                    buffer.getInt(offset + 28)));
+        }
+        return records;
+    }
+
+    private static List<String> readNames(ByteBuffer buffer, int offset, int size) {
+        List<String> names = new ArrayList<>();
+        int end = offset + size;
+        while (offset < end) {
+            int length = buffer.getShort(offset);
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = buffer.get(offset + 2 + i);
+            }
+            names.add(new String(bytes, UTF_8));
+            offset += 2 + length;
+        }
+        return names;
+    }
+
+    private static String getName(List<String> names, int id) {
+        return id >= 0 && id < names.size() ? names.get(id) : "#" + id;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: FlightRecorderReader <file>");
+            System.exit(1);
+        }
+        for (Record record : read(new File(args[0]))) {
+            System.out.println(record);
+        }
+    }
+}
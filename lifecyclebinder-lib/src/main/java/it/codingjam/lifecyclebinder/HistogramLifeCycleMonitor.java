@@ -0,0 +1,125 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link LifeCycleMonitor} that records the durations in a {@link LatencyHistogram} for each
+ * host class, listener class and event. The histograms are created on the first record,
+ * the next records don't allocate objects.
+ */
+public class HistogramLifeCycleMonitor implements LifeCycleMonitor {
+
+    private final Map<Class<?>, Map<Class<?>, Histograms>> callbacks = new HashMap<>();
+
+    private final Map<Class<?>, Histograms> binds = new HashMap<>();
+
+    @Override
+    public void onBind(Class<?> hostClass, long wallNanos, long threadCpuNanos) {
+        Histograms histograms;
+        synchronized (this) {
+            histograms = binds.get(hostClass);
+            if (histograms == null) {
+                histograms = new Histograms();
+                binds.put(hostClass, histograms);
+            }
+        }
+        histograms.record(0, wallNanos, threadCpuNanos);
+    }
+
+    @Override
+    public void onCallbackStart(Class<?> hostClass, Class<?> listenerClass, int event) {
+    }
+
+    @Override
+    public void onCallback(Class<?> hostClass, Class<?> listenerClass, int event, long wallNanos, long threadCpuNanos) {
+        Histograms histograms;
+        synchronized (this) {
+            Map<Class<?>, Histograms> hostCallbacks = callbacks.get(hostClass);
+            if (hostCallbacks == null) {
+                hostCallbacks = new HashMap<>();
+                callbacks.put(hostClass, hostCallbacks);
+            }
+            histograms = hostCallbacks.get(listenerClass);
+            if (histograms == null) {
+                histograms = new Histograms();
+                hostCallbacks.put(listenerClass, histograms);
+            }
+        }
+        histograms.record(LifeCycleEvents.indexOf(event), wallNanos, threadCpuNanos);
+    }
+
+    /**
+     * Returns the wall time histogram of the given event (one of the {@link LifeCycleEvents} constants),
+     * null if the event has never been recorded.
+     */
+    public synchronized LatencyHistogram getWallHistogram(Class<?> hostClass, Class<?> listenerClass, int event) {
+        Histograms histograms = getHistograms(hostClass, listenerClass);
+        return histograms != null ? histograms.getWall(LifeCycleEvents.indexOf(event)) : null;
+    }
+
+    public synchronized LatencyHistogram getThreadCpuHistogram(Class<?> hostClass, Class<?> listenerClass, int event) {
+        Histograms histograms = getHistograms(hostClass, listenerClass);
+        return histograms != null ? histograms.getThreadCpu(LifeCycleEvents.indexOf(event)) : null;
+    }
+
+    public synchronized LatencyHistogram getBindWallHistogram(Class<?> hostClass) {
+        Histograms histograms = binds.get(hostClass);
+        return histograms != null ? histograms.getWall(0) : null;
+    }
+
+    public synchronized LatencyHistogram getBindThreadCpuHistogram(Class<?> hostClass) {
+        Histograms histograms = binds.get(hostClass);
+        return histograms != null ? histograms.getThreadCpu(0) : null;
+    }
+
+    private Histograms getHistograms(Class<?> hostClass, Class<?> listenerClass) {
+        Map<Class<?>, Histograms> hostCallbacks = callbacks.get(hostClass);
+        return hostCallbacks != null ? hostCallbacks.get(listenerClass) : null;
+    }
+
+    private static class Histograms {
+        private final LatencyHistogram[] wall = new LatencyHistogram[LifeCycleEvents.COUNT];
+
+        private final LatencyHistogram[] threadCpu = new LatencyHistogram[LifeCycleEvents.COUNT];
+
+        synchronized LatencyHistogram getWall(int index) {
+            return wall[index];
+        }
+
+        synchronized LatencyHistogram getThreadCpu(int index) {
+            return threadCpu[index];
+        }
+
+        void record(int index, long wallNanos, long threadCpuNanos) {
+            LatencyHistogram wallHistogram;
+            LatencyHistogram threadCpuHistogram;
+            synchronized (this) {
+                if (wall[index] == null) {
+                    wall[index] = new LatencyHistogram();
+                    threadCpu[index] = new LatencyHistogram();
+                }
+                wallHistogram = wall[index];
+                threadCpuHistogram = threadCpu[index];
+            }
+            wallHistogram.record(wallNanos);
+            threadCpuHistogram.record(threadCpuNanos);
+        }
+    }
+}
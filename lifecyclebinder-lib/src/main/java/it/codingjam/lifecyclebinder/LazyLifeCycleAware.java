@@ -0,0 +1,135 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuInflater;
+import android.view.MenuItem;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Placeholder registered in place of a lazy object, the object is created on the first event
+ * and all the events are forwarded to it. The teardown events (pause, stop, save state and destroy)
+ * don't create the object.
+ */
+class LazyLifeCycleAware<T, R extends LifeCycleAware<? super T>> implements LifeCycleAware<T> {
+
+    private Callable<R> factory;
+
+    private LifeCycleAware<? super T> lifeCycleAware;
+
+    LazyLifeCycleAware(Callable<R> factory) {
+        this.factory = factory;
+    }
+
+    LifeCycleAware<? super T> get() {
+        if (lifeCycleAware == null) {
+            try {
+                lifeCycleAware = wrap(factory.call());
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            factory = null;
+        }
+        return lifeCycleAware;
+    }
+
+    /**
+     * Returns the listener that receives the events of the object just created.
+     */
+    LifeCycleAware<? super T> wrap(R object) {
+        return object;
+    }
+
+    @Override
+    public void onCreate(T view, Bundle savedInstanceState, Intent intent, Bundle arguments) {
+        get().onCreate(view, savedInstanceState, intent, arguments);
+    }
+
+    @Override
+    public void onViewCreated(T view, Bundle savedInstanceState) {
+        get().onViewCreated(view, savedInstanceState);
+    }
+
+    @Override
+    public void onStart(T view) {
+        get().onStart(view);
+    }
+
+    @Override
+    public void onResume(T view) {
+        get().onResume(view);
+    }
+
+    @Override
+    public boolean hasOptionsMenu(T view) {
+        return get().hasOptionsMenu(view);
+    }
+
+    @Override
+    public void onCreateOptionsMenu(T view, Menu menu, MenuInflater inflater) {
+        get().onCreateOptionsMenu(view, menu, inflater);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(T view, MenuItem item) {
+        return get().onOptionsItemSelected(view, item);
+    }
+
+    @Override
+    public void onPause(T view) {
+        if (lifeCycleAware != null) {
+            lifeCycleAware.onPause(view);
+        }
+    }
+
+    @Override
+    public void onStop(T view) {
+        if (lifeCycleAware != null) {
+            lifeCycleAware.onStop(view);
+        }
+    }
+
+    @Override
+    public void onSaveInstanceState(T view, Bundle bundle) {
+        if (lifeCycleAware != null) {
+            lifeCycleAware.onSaveInstanceState(view, bundle);
+        }
+    }
+
+    @Override
+    public void onDestroyView(T view) {
+        if (lifeCycleAware != null) {
+            lifeCycleAware.onDestroyView(view);
+        }
+    }
+
+    @Override
+    public void onDestroy(T view, boolean changingConfigurations) {
+        if (lifeCycleAware != null) {
+            lifeCycleAware.onDestroy(view, changingConfigurations);
+        }
+    }
+
+    @Override
+    public void onActivityResult(T view, int requestCode, int resultCode, Intent data) {
+        get().onActivityResult(view, requestCode, resultCode, data);
+    }
+}
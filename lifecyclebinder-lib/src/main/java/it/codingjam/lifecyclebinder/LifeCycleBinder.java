@@ -16,50 +16,316 @@
 
 package it.codingjam.lifecyclebinder;
 
+import android.app.Application;
 import android.content.Intent;
 import android.support.v4.app.Fragment;
 import android.support.v4.app.FragmentActivity;
 import android.support.v4.app.FragmentManager;
 
 public class LifeCycleBinder {
+    static volatile LifeCycleMonitor monitor;
+
+    static volatile StartupTimeline.Listener startupTimelineListener;
+
+    static volatile CircuitBreakerPolicy circuitBreakerPolicy;
+
+    public static void installIndex(LifeCycleBinderIndex index) {
+        BinderRegistry.installIndex(index);
+    }
+
+    /**
+     * Dispatches the events of the activities using an {@link Application.ActivityLifecycleCallbacks}
+     * (and of the fragments using a FragmentLifecycleCallbacks) instead of a headless fragment, it must
+     * be invoked in the onCreate method of the Application class. Hosts that contain listeners of the
+     * options menu or of the activity result events still use a fragment.
+     */
+    public static void useActivityLifecycleCallbacks(Application application) {
+        LifeCycleBinderCallbacks.install(application);
+    }
+
+    /**
+     * Sets the maximum time (in milliseconds) spent in every frame dispatching the events
+     * of the {@link Phase#DEFERRED} listeners, the default value is 4 milliseconds.
+     */
+    public static void setDeferredFrameBudget(long millis) {
+        DeferredScheduler.get().setFrameBudget(millis);
+    }
+
+    /**
+     * Installs a monitor that receives the duration of the bind methods and of the listener callbacks,
+     * it's used only by the objects bound after this invocation. Use null to remove it.
+     */
+    public static void setMonitor(LifeCycleMonitor monitor) {
+        LifeCycleBinder.monitor = monitor;
+    }
+
+    /**
+     * Sets the policy used to demote the optional listeners, the demotion is disabled by default
+     * (or using null) and the optional listeners are dispatched as the other listeners.
+     */
+    public static void setCircuitBreakerPolicy(CircuitBreakerPolicy policy) {
+        circuitBreakerPolicy = policy;
+    }
+
+    /**
+     * Overrides the device profile used by the fields bound conditionally (see
+     * {@link BindLifeCycle#minDeviceTier()}), it must be invoked before binding the first object.
+     */
+    public static void setDeviceProfile(DeviceTier tier, boolean lowRam) {
+        DeviceProfile.set(tier, lowRam);
+    }
+
+    /**
+     * Installs a listener that receives the {@link StartupTimeline} of every Activity/Fragment bound after
+     * this invocation. The timelines are captured only in the given fraction of the processes (sessions),
+     * for example 0.01 enables the capture in the 1% of the sessions. Use null to remove the listener.
+     */
+    public static void setStartupTimelineListener(StartupTimeline.Listener listener, double sessionSampleRate) {
+        startupTimelineListener = listener != null && Math.random() < sessionSampleRate ? listener : null;
+    }
+
     public static void bind(Fragment fragment) {
-        bind(fragment, fragment.getChildFragmentManager());
+        StartupTimeline timeline = StartupTimeline.start(fragment);
+        bind(fragment, getBinderId(fragment, timeline), timeline);
     }
 
     public static void bind(FragmentActivity activity) {
-        bind(activity, activity.getSupportFragmentManager());
+        StartupTimeline timeline = StartupTimeline.start(activity);
+        bind(activity, getBinderId(activity, timeline), timeline);
     }
 
     public static <T extends Fragment> void bind(T fragment, Class<ObjectBinder<T, T>> objectBinderClass) {
-        bind(fragment.getChildFragmentManager(), objectBinderClass);
+        StartupTimeline timeline = StartupTimeline.start(fragment);
+        bind(fragment, getBinderIdOfBinderClass(objectBinderClass, timeline), timeline);
     }
 
     public static <T extends FragmentActivity> void bind(T activity, Class<ObjectBinder<T, T>> objectBinderClass) {
-        bind(activity.getSupportFragmentManager(), objectBinderClass);
+        StartupTimeline timeline = StartupTimeline.start(activity);
+        bind(activity, getBinderIdOfBinderClass(objectBinderClass, timeline), timeline);
     }
 
-    private static <T> void bind(T obj, FragmentManager fragmentManager) {
-        LifeCycleBinderFragment<T> fragment = LifeCycleBinderFragment.get(fragmentManager);
-        if (fragment == null) {
-            Class<ObjectBinder<T, T>> c = ReflectionUtils.getObjectBinderClass(obj);
-            fragment = LifeCycleBinderFragment.createAndAdd(fragmentManager, c);
+    private static int getBinderId(Object obj, StartupTimeline timeline) {
+        long start = System.nanoTime();
+        int binderId = BinderRegistry.getBinderId(obj.getClass());
+        if (binderId == BinderRegistry.NO_BINDER) {
+            throw new RuntimeException("Binder not found for class " + obj.getClass().getName());
+        }
+        if (timeline != null) {
+            timeline.add("binder lookup", "bind", start);
+        }
+        return binderId;
+    }
+
+    private static int getBinderIdOfBinderClass(Class<?> objectBinderClass, StartupTimeline timeline) {
+        long start = System.nanoTime();
+        int binderId = BinderRegistry.getBinderIdOfBinderClass(objectBinderClass);
+        if (timeline != null) {
+            timeline.add("binder lookup", "bind", start);
+        }
+        return binderId;
+    }
+
+    private static void bind(FragmentActivity activity, int binderId, StartupTimeline timeline) {
+        LifeCycleBinderCallbacks callbacks = LifeCycleBinderCallbacks.get();
+        if (callbacks != null) {
+            callbacks.bind(activity, binderId, timeline);
+        } else {
+            bind(activity.getSupportFragmentManager(), binderId, timeline);
+        }
+        if (timeline != null) {
+            timeline.add("LifeCycleBinder.bind", "bind", timeline.getStartNanos());
         }
-        fragment.invokeOnCreate();
     }
 
-    private static <T> void bind(FragmentManager fragmentManager, Class<ObjectBinder<T, T>> objectBinderClass) {
+    private static void bind(Fragment fragment, int binderId, StartupTimeline timeline) {
+        LifeCycleBinderCallbacks callbacks = LifeCycleBinderCallbacks.get();
+        if (callbacks != null && callbacks.canBind(fragment)) {
+            callbacks.bind(fragment, binderId, timeline);
+        } else {
+            bind(fragment.getChildFragmentManager(), binderId, timeline);
+        }
+        if (timeline != null) {
+            timeline.add("LifeCycleBinder.bind", "bind", timeline.getStartNanos());
+        }
+    }
+
+    private static <T> void bind(FragmentManager fragmentManager, int binderId, StartupTimeline timeline) {
         LifeCycleBinderFragment<T> fragment = LifeCycleBinderFragment.get(fragmentManager);
         if (fragment == null) {
-            fragment = LifeCycleBinderFragment.createAndAdd(fragmentManager, objectBinderClass);
+            fragment = LifeCycleBinderFragment.createAndAdd(fragmentManager);
         }
-        fragment.invokeOnCreate();
+        fragment.invokeOnCreate(binderId, timeline);
     }
 
     public static void startActivityForResult(FragmentActivity activity, Intent intent, int requestCode) {
-        LifeCycleBinderFragment.get(activity.getSupportFragmentManager()).startActivityForResult(intent, requestCode);
+        startActivityForResult(activity, intent, requestCode, null);
+    }
+
+    /**
+     * Starts an activity, the result is delivered only to the given listener. The request code can't
+     * be used by other listeners of the Activity.
+     */
+    public static void startActivityForResult(FragmentActivity activity, Intent intent, int requestCode, LifeCycleAware<?> listener) {
+        LifeCycleBinderFragment<?> fragment;
+        LifeCycleBinderCallbacks callbacks = LifeCycleBinderCallbacks.get();
+        if (callbacks != null) {
+            fragment = callbacks.getFragment(activity);
+        } else {
+            fragment = LifeCycleBinderFragment.get(activity.getSupportFragmentManager());
+        }
+        if (fragment != null) {
+            if (listener != null) {
+                fragment.addActivityResultRoute(requestCode, listener);
+            }
+            fragment.startActivityForResult(intent, requestCode);
+        } else {
+            activity.startActivityForResult(intent, requestCode);
+        }
     }
 
     public static void startActivityForResult(Fragment fragment, Intent intent, int requestCode) {
-        LifeCycleBinderFragment.get(fragment.getChildFragmentManager()).startActivityForResult(intent, requestCode);
+        startActivityForResult(fragment, intent, requestCode, null);
+    }
+
+    /**
+     * Starts an activity, the result is delivered only to the given listener. The request code can't
+     * be used by other listeners of the Fragment.
+     */
+    public static void startActivityForResult(Fragment fragment, Intent intent, int requestCode, LifeCycleAware<?> listener) {
+        LifeCycleBinderFragment<?> childFragment = null;
+        LifeCycleBinderCallbacks callbacks = LifeCycleBinderCallbacks.get();
+        if (callbacks != null) {
+            childFragment = callbacks.getFragment(fragment);
+        }
+        if (childFragment == null) {
+            childFragment = LifeCycleBinderFragment.get(fragment.getChildFragmentManager());
+        }
+        if (childFragment != null) {
+            if (listener != null) {
+                childFragment.addActivityResultRoute(requestCode, listener);
+            }
+            childFragment.startActivityForResult(intent, requestCode);
+        } else {
+            fragment.startActivityForResult(intent, requestCode);
+        }
+    }
+
+    /**
+     * Requests an update of the menu items of the listener, the requests made before the next frame are
+     * coalesced and only the listeners that requested them are invoked (the menu is not created again).
+     * It must be invoked on the main thread.
+     */
+    public static void updateOptionsMenu(FragmentActivity activity, OptionsMenuAware<?> listener) {
+        LifeCycleBinderFragment<?> fragment;
+        LifeCycleBinderCallbacks callbacks = LifeCycleBinderCallbacks.get();
+        if (callbacks != null) {
+            fragment = callbacks.getFragment(activity);
+        } else {
+            fragment = LifeCycleBinderFragment.get(activity.getSupportFragmentManager());
+        }
+        if (fragment != null) {
+            fragment.updateOptionsMenu(listener);
+        } else {
+            activity.supportInvalidateOptionsMenu();
+        }
+    }
+
+    /**
+     * Same as {@link #updateOptionsMenu(FragmentActivity, OptionsMenuAware)} for a listener of a Fragment.
+     */
+    public static void updateOptionsMenu(Fragment fragment, OptionsMenuAware<?> listener) {
+        LifeCycleBinderFragment<?> childFragment = null;
+        LifeCycleBinderCallbacks callbacks = LifeCycleBinderCallbacks.get();
+        if (callbacks != null) {
+            childFragment = callbacks.getFragment(fragment);
+        }
+        if (childFragment == null) {
+            childFragment = LifeCycleBinderFragment.get(fragment.getChildFragmentManager());
+        }
+        if (childFragment != null) {
+            childFragment.updateOptionsMenu(listener);
+        } else if (fragment.getActivity() != null) {
+            fragment.getActivity().supportInvalidateOptionsMenu();
+        }
+    }
+
+    /**
+     * Adds a listener to a bound Activity, it receives the events already dispatched (see
+     * {@link LifeCycleAwareCollector#addLifeCycleAware(LifeCycleAware)}). It must be invoked on the main thread.
+     */
+    public static <T extends FragmentActivity> void addLifeCycleAware(T activity, LifeCycleAware<? super T> listener) {
+        getBoundHost(getHost(activity), activity).addLifeCycleAware(listener);
+    }
+
+    /**
+     * Same as {@link #addLifeCycleAware(FragmentActivity, LifeCycleAware)} for a Fragment.
+     */
+    public static <T extends Fragment> void addLifeCycleAware(T fragment, LifeCycleAware<? super T> listener) {
+        getBoundHost(getHost(fragment), fragment).addLifeCycleAware(listener);
+    }
+
+    /**
+     * Removes a listener of an Activity, returns false when the Activity is not bound or the object
+     * is not a listener. A listener removed during a dispatch can still receive the event being dispatched.
+     */
+    public static <T extends FragmentActivity> boolean removeLifeCycleAware(T activity, LifeCycleAware<? super T> listener) {
+        LifeCycleHost<T> host = getHost(activity);
+        return host != null && host.removeLifeCycleAware(listener);
+    }
+
+    /**
+     * Same as {@link #removeLifeCycleAware(FragmentActivity, LifeCycleAware)} for a Fragment.
+     */
+    public static <T extends Fragment> boolean removeLifeCycleAware(T fragment, LifeCycleAware<? super T> listener) {
+        LifeCycleHost<T> host = getHost(fragment);
+        return host != null && host.removeLifeCycleAware(listener);
+    }
+
+    /**
+     * Mutes or unmutes a listener of an Activity (see
+     * {@link LifeCycleAwareCollector#setLifeCycleAwareMuted(LifeCycleAware, boolean)}).
+     */
+    public static <T extends FragmentActivity> void setLifeCycleAwareMuted(T activity, LifeCycleAware<? super T> listener, boolean muted) {
+        getBoundHost(getHost(activity), activity).setLifeCycleAwareMuted(listener, muted);
+    }
+
+    /**
+     * Same as {@link #setLifeCycleAwareMuted(FragmentActivity, LifeCycleAware, boolean)} for a Fragment.
+     */
+    public static <T extends Fragment> void setLifeCycleAwareMuted(T fragment, LifeCycleAware<? super T> listener, boolean muted) {
+        getBoundHost(getHost(fragment), fragment).setLifeCycleAwareMuted(listener, muted);
+    }
+
+    private static <T extends FragmentActivity> LifeCycleHost<T> getHost(T activity) {
+        LifeCycleHost<?> host = null;
+        LifeCycleBinderCallbacks callbacks = LifeCycleBinderCallbacks.get();
+        if (callbacks != null) {
+            host = callbacks.getHost(activity);
+        }
+        if (host == null) {
+            LifeCycleBinderFragment<?> fragment = LifeCycleBinderFragment.get(activity.getSupportFragmentManager());
+            host = fragment != null ? fragment.getHost() : null;
+        }
+        return (LifeCycleHost<T>) host;
+    }
+
+    private static <T extends Fragment> LifeCycleHost<T> getHost(T fragment) {
+        LifeCycleHost<?> host = null;
+        LifeCycleBinderCallbacks callbacks = LifeCycleBinderCallbacks.get();
+        if (callbacks != null) {
+            host = callbacks.getHost(fragment);
+        }
+        if (host == null) {
+            LifeCycleBinderFragment<?> childFragment = LifeCycleBinderFragment.get(fragment.getChildFragmentManager());
+            host = childFragment != null ? childFragment.getHost() : null;
+        }
+        return (LifeCycleHost<T>) host;
+    }
+
+    private static <T> LifeCycleHost<T> getBoundHost(LifeCycleHost<T> host, T view) {
+        if (host == null) {
+            throw new IllegalStateException(view.getClass().getName() + " is not bound");
+        }
+        return host;
     }
 }
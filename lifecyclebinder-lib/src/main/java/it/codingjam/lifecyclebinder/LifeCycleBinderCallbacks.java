@@ -0,0 +1,385 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.content.Context;
+import android.support.v4.app.Fragment;
+import android.support.v4.app.FragmentActivity;
+import android.support.v4.app.FragmentManager;
+import android.view.View;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Backend that dispatches the events of the bound activities using a single
+ * {@link Application.ActivityLifecycleCallbacks}, no fragment is added to the activity.
+ * The events of the bound fragments are dispatched using a FragmentLifecycleCallbacks registered
+ * (recursively) once for each activity, no child fragment is added to the fragments.
+ * A host that contains listeners of the options menu or of the activity result events
+ * (not available in the callbacks) uses a headless fragment to dispatch all the events.
+ */
+class LifeCycleBinderCallbacks implements Application.ActivityLifecycleCallbacks {
+
+    private static LifeCycleBinderCallbacks instance;
+
+    /**
+     * Activity classes don't override equals and hashCode, the lookup is based on the identity.
+     */
+    private final Map<Activity, ActivityHost<?>> hosts = new WeakHashMap<>();
+
+    /**
+     * Fragment classes don't override equals and hashCode, the lookup is based on the identity.
+     * The map is shared by all the activities, a retained fragment keeps its host when it's moved
+     * to a new activity.
+     */
+    private final Map<Fragment, FragmentHost<?>> fragmentHosts = new WeakHashMap<>();
+
+    /**
+     * Fragments attached but not created yet (the onCreate method is running).
+     */
+    private final List<Fragment> creatingFragments = new ArrayList<>();
+
+    /**
+     * States of the fragments created but not bound yet, they are kept until onActivityCreated.
+     */
+    private final Map<Fragment, Bundle> createdFragmentStates = new WeakHashMap<>();
+
+    private final FragmentCallbacks fragmentCallbacks = new FragmentCallbacks();
+
+    private Activity createdActivity;
+
+    private Bundle createdActivityState;
+
+    static synchronized void install(Application application) {
+        if (instance == null) {
+            instance = new LifeCycleBinderCallbacks();
+            application.registerActivityLifecycleCallbacks(instance);
+        }
+    }
+
+    static LifeCycleBinderCallbacks get() {
+        return instance;
+    }
+
+    <T extends FragmentActivity> void bind(T activity, int binderId, StartupTimeline timeline) {
+        Bundle savedInstanceState = activity == createdActivity ? createdActivityState : null;
+        createdActivity = null;
+        createdActivityState = null;
+
+        ActivityHost<T> activityHost = new ActivityHost<>(new LifeCycleHost<>(activity, savedInstanceState));
+        activityHost.savedInstanceState = savedInstanceState;
+        activityHost.host.bind(binderId, timeline);
+        if (activityHost.host.requiresFragment()) {
+            LifeCycleBinderFragment<T> fragment = LifeCycleBinderFragment.get(activity.getSupportFragmentManager());
+            if (fragment == null) {
+                fragment = LifeCycleBinderFragment.createAndAdd(activity.getSupportFragmentManager(), activityHost.host);
+            } else {
+                fragment.setHost(activityHost.host);
+            }
+            activityHost.fragment = fragment;
+        }
+        hosts.put(activity, activityHost);
+        activityHost.host.dispatchCreate(savedInstanceState, activity.getIntent(), activity.getIntent().getExtras());
+    }
+
+    /**
+     * The state of a fragment is available only after its onCreate method (see onFragmentCreated), a fragment
+     * bound in onCreate reads the token of the retained objects from the arguments so it must be bound using
+     * a child fragment when it doesn't have arguments.
+     */
+    boolean canBind(Fragment fragment) {
+        return !creatingFragments.contains(fragment) || fragment.getArguments() != null;
+    }
+
+    /**
+     * The token of the retained objects is saved in the fragment state and in the arguments (see
+     * onFragmentSaveInstanceState), the fragment must be bound before the end of its onActivityCreated method.
+     */
+    <T extends Fragment> void bind(T fragment, int binderId, StartupTimeline timeline) {
+        boolean creating = creatingFragments.contains(fragment);
+        Bundle savedInstanceState = creating ? null : createdFragmentStates.remove(fragment);
+        Bundle state = creating ? fragment.getArguments() : savedInstanceState;
+        FragmentHost<T> fragmentHost = new FragmentHost<>(new LifeCycleHost<>(fragment, state));
+        fragmentHost.host.bind(binderId, timeline);
+        if (fragmentHost.host.requiresFragment()) {
+            LifeCycleBinderFragment<T> childFragment = LifeCycleBinderFragment.get(fragment.getChildFragmentManager());
+            if (childFragment == null) {
+                childFragment = LifeCycleBinderFragment.createAndAdd(fragment.getChildFragmentManager(), fragmentHost.host);
+            } else {
+                childFragment.setHost(fragmentHost.host);
+            }
+            fragmentHost.fragment = childFragment;
+        }
+        fragmentHosts.put(fragment, fragmentHost);
+        if (creating) {
+            fragmentHost.createPending = true;
+        } else {
+            fragmentHost.host.dispatchCreate(savedInstanceState, fragment.getActivity().getIntent(), fragment.getArguments());
+        }
+    }
+
+    LifeCycleBinderFragment<?> getFragment(Fragment fragment) {
+        FragmentHost<?> fragmentHost = fragmentHosts.get(fragment);
+        return fragmentHost != null ? fragmentHost.fragment : null;
+    }
+
+    LifeCycleBinderFragment<?> getFragment(Activity activity) {
+        ActivityHost<?> activityHost = hosts.get(activity);
+        return activityHost != null ? activityHost.fragment : null;
+    }
+
+    LifeCycleHost<?> getHost(Fragment fragment) {
+        FragmentHost<?> fragmentHost = fragmentHosts.get(fragment);
+        return fragmentHost != null ? fragmentHost.host : null;
+    }
+
+    LifeCycleHost<?> getHost(Activity activity) {
+        ActivityHost<?> activityHost = hosts.get(activity);
+        return activityHost != null ? activityHost.host : null;
+    }
+
+    private ActivityHost<?> getDispatchingHost(Activity activity) {
+        ActivityHost<?> activityHost = hosts.get(activity);
+        return activityHost != null && activityHost.fragment == null ? activityHost : null;
+    }
+
+    @Override
+    public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+        createdActivity = activity;
+        createdActivityState = savedInstanceState;
+        if (activity instanceof FragmentActivity) {
+            ((FragmentActivity) activity).getSupportFragmentManager().registerFragmentLifecycleCallbacks(fragmentCallbacks, true);
+        }
+    }
+
+    @Override
+    public void onActivityStarted(Activity activity) {
+        if (activity == createdActivity) {
+            createdActivity = null;
+            createdActivityState = null;
+        }
+        ActivityHost<?> activityHost = getDispatchingHost(activity);
+        if (activityHost != null) {
+            if (!activityHost.viewCreated) {
+                activityHost.viewCreated = true;
+                activityHost.host.dispatchViewCreated(activityHost.savedInstanceState);
+                activityHost.savedInstanceState = null;
+            }
+            activityHost.host.dispatchStart();
+        }
+    }
+
+    @Override
+    public void onActivityResumed(Activity activity) {
+        ActivityHost<?> activityHost = getDispatchingHost(activity);
+        if (activityHost != null) {
+            activityHost.host.dispatchResume();
+        }
+    }
+
+    @Override
+    public void onActivityPaused(Activity activity) {
+        ActivityHost<?> activityHost = getDispatchingHost(activity);
+        if (activityHost != null) {
+            activityHost.host.dispatchPause();
+        }
+    }
+
+    @Override
+    public void onActivityStopped(Activity activity) {
+        ActivityHost<?> activityHost = getDispatchingHost(activity);
+        if (activityHost != null) {
+            activityHost.host.dispatchStop();
+        }
+    }
+
+    @Override
+    public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+        ActivityHost<?> activityHost = hosts.get(activity);
+        if (activityHost != null) {
+            activityHost.host.saveRetainedObjectsToken(outState);
+            if (activityHost.fragment == null) {
+                activityHost.host.dispatchSaveInstanceState(outState);
+            }
+        }
+    }
+
+    @Override
+    public void onActivityDestroyed(Activity activity) {
+        if (activity == createdActivity) {
+            createdActivity = null;
+            createdActivityState = null;
+        }
+        ActivityHost<?> activityHost = hosts.remove(activity);
+        if (activityHost != null) {
+            boolean changingConfigurations = activity.isChangingConfigurations();
+            if (activityHost.fragment == null) {
+                if (activityHost.viewCreated) {
+                    activityHost.host.dispatchDestroyView();
+                }
+                activityHost.host.dispatchDestroy(changingConfigurations);
+            }
+            if (changingConfigurations) {
+                activityHost.host.retainObjects(activity);
+            }
+        }
+    }
+
+    private FragmentHost<?> getDispatchingHost(Fragment fragment) {
+        FragmentHost<?> fragmentHost = fragmentHosts.get(fragment);
+        return fragmentHost != null && fragmentHost.fragment == null ? fragmentHost : null;
+    }
+
+    private class FragmentCallbacks extends FragmentManager.FragmentLifecycleCallbacks {
+        @Override
+        public void onFragmentAttached(FragmentManager fm, Fragment f, Context context) {
+            creatingFragments.add(f);
+        }
+
+        @Override
+        public void onFragmentCreated(FragmentManager fm, Fragment f, Bundle savedInstanceState) {
+            creatingFragments.remove(f);
+            FragmentHost<?> fragmentHost = fragmentHosts.get(f);
+            if (fragmentHost == null) {
+                if (savedInstanceState != null) {
+                    createdFragmentStates.put(f, savedInstanceState);
+                }
+            } else if (fragmentHost.createPending) {
+                fragmentHost.createPending = false;
+                fragmentHost.host.dispatchCreate(savedInstanceState, f.getActivity().getIntent(), f.getArguments());
+            }
+        }
+
+        @Override
+        public void onFragmentActivityCreated(FragmentManager fm, Fragment f, Bundle savedInstanceState) {
+            createdFragmentStates.remove(f);
+        }
+
+        @Override
+        public void onFragmentViewCreated(FragmentManager fm, Fragment f, View v, Bundle savedInstanceState) {
+            FragmentHost<?> fragmentHost = getDispatchingHost(f);
+            if (fragmentHost != null) {
+                fragmentHost.host.dispatchViewCreated(savedInstanceState);
+            }
+        }
+
+        @Override
+        public void onFragmentStarted(FragmentManager fm, Fragment f) {
+            FragmentHost<?> fragmentHost = getDispatchingHost(f);
+            if (fragmentHost != null) {
+                fragmentHost.host.dispatchStart();
+            }
+        }
+
+        @Override
+        public void onFragmentResumed(FragmentManager fm, Fragment f) {
+            FragmentHost<?> fragmentHost = getDispatchingHost(f);
+            if (fragmentHost != null) {
+                fragmentHost.host.dispatchResume();
+            }
+        }
+
+        @Override
+        public void onFragmentPaused(FragmentManager fm, Fragment f) {
+            FragmentHost<?> fragmentHost = getDispatchingHost(f);
+            if (fragmentHost != null) {
+                fragmentHost.host.dispatchPause();
+            }
+        }
+
+        @Override
+        public void onFragmentStopped(FragmentManager fm, Fragment f) {
+            FragmentHost<?> fragmentHost = getDispatchingHost(f);
+            if (fragmentHost != null) {
+                fragmentHost.host.dispatchStop();
+            }
+        }
+
+        @Override
+        public void onFragmentSaveInstanceState(FragmentManager fm, Fragment f, Bundle outState) {
+            FragmentHost<?> fragmentHost = fragmentHosts.get(f);
+            if (fragmentHost != null) {
+                fragmentHost.host.saveRetainedObjectsToken(outState);
+                if (f.getArguments() != null) {
+                    fragmentHost.host.saveRetainedObjectsToken(f.getArguments());
+                }
+                if (fragmentHost.fragment == null) {
+                    fragmentHost.host.dispatchSaveInstanceState(outState);
+                }
+            }
+        }
+
+        @Override
+        public void onFragmentViewDestroyed(FragmentManager fm, Fragment f) {
+            FragmentHost<?> fragmentHost = getDispatchingHost(f);
+            if (fragmentHost != null) {
+                fragmentHost.host.dispatchDestroyView();
+            }
+        }
+
+        @Override
+        public void onFragmentDestroyed(FragmentManager fm, Fragment f) {
+            FragmentHost<?> fragmentHost = fragmentHosts.remove(f);
+            if (fragmentHost != null) {
+                boolean changingConfigurations = f.getActivity().isChangingConfigurations();
+                if (fragmentHost.fragment == null) {
+                    fragmentHost.host.dispatchDestroy(changingConfigurations);
+                }
+                if (changingConfigurations) {
+                    fragmentHost.host.retainObjects(f.getActivity());
+                }
+            }
+        }
+
+        @Override
+        public void onFragmentDetached(FragmentManager fm, Fragment f) {
+            creatingFragments.remove(f);
+            createdFragmentStates.remove(f);
+        }
+    }
+
+    private static class FragmentHost<T> {
+        final LifeCycleHost<T> host;
+
+        LifeCycleBinderFragment<T> fragment;
+
+        boolean createPending;
+
+        FragmentHost(LifeCycleHost<T> host) {
+            this.host = host;
+        }
+    }
+
+    private static class ActivityHost<T> {
+        final LifeCycleHost<T> host;
+
+        LifeCycleBinderFragment<T> fragment;
+
+        Bundle savedInstanceState;
+
+        boolean viewCreated;
+
+        ActivityHost(LifeCycleHost<T> host) {
+            this.host = host;
+        }
+    }
+}
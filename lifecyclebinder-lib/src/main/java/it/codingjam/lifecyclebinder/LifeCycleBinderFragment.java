@@ -18,34 +18,22 @@ package it.codingjam.lifecyclebinder;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.app.Fragment;
 import android.support.v4.app.FragmentManager;
-import android.support.v4.app.LoaderManager;
-import android.support.v4.content.Loader;
 import android.view.LayoutInflater;
 import android.view.Menu;
 import android.view.MenuInflater;
 import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.Callable;
 
-public class LifeCycleBinderFragment<T> extends Fragment implements LifeCycleAwareCollector<T> {
+public class LifeCycleBinderFragment<T> extends Fragment {
 
     private static final String LIFE_CYCLE_BINDER_FRAGMENT = "_LIFE_CYCLE_BINDER_FRAGMENT_";
-    private static final String OBJECT_BINDER_CLASS = "objectBinderClass";
-    private static final int LOADER_ID = 123;
+    private static final String EXTERNAL_HOST = "externalHost";
 
-    private T viewParam;
-
-    private Map<String, LifeCycleAware<?>> retainedObjects;
-
-    private final List<LifeCycleAware<? super T>> listeners = new ArrayList<>();
+    private LifeCycleHost<T> host;
 
     @Nullable private Bundle savedInstanceStateOnCreate;
 
@@ -53,109 +41,112 @@ public class LifeCycleBinderFragment<T> extends Fragment implements LifeCycleAwa
         return (LifeCycleBinderFragment<T>) fragmentManager.findFragmentByTag(LIFE_CYCLE_BINDER_FRAGMENT);
     }
 
-    @NonNull
-    private static <T> LifeCycleBinderFragment<T> create(Class<ObjectBinder<T, T>> objectBinderClass) {
+    private static <T> void add(FragmentManager fragmentManager, LifeCycleBinderFragment<T> fragment) {
+        fragmentManager.beginTransaction().add(fragment, LIFE_CYCLE_BINDER_FRAGMENT).commitNow();
+    }
+
+    static <T> LifeCycleBinderFragment<T> createAndAdd(FragmentManager fragmentManager) {
+        LifeCycleBinderFragment<T> fragment = new LifeCycleBinderFragment<>();
+        add(fragmentManager, fragment);
+        return fragment;
+    }
+
+    /**
+     * Creates a fragment that dispatches the events to a host managed by another backend,
+     * the retained objects and the onCreate invocation are managed by that backend.
+     */
+    static <T> LifeCycleBinderFragment<T> createAndAdd(FragmentManager fragmentManager, LifeCycleHost<T> host) {
         LifeCycleBinderFragment<T> fragment = new LifeCycleBinderFragment<>();
         Bundle args = new Bundle();
-        args.putSerializable(OBJECT_BINDER_CLASS, objectBinderClass);
+        args.putBoolean(EXTERNAL_HOST, true);
         fragment.setArguments(args);
+        fragment.host = host;
+        add(fragmentManager, fragment);
         return fragment;
     }
 
-    private static <T> void add(FragmentManager fragmentManager, LifeCycleBinderFragment<T> fragment) {
-        fragmentManager.beginTransaction().add(fragment, LIFE_CYCLE_BINDER_FRAGMENT).commitNow();
+    void setHost(LifeCycleHost<T> host) {
+        this.host = host;
     }
 
-    static <T> LifeCycleBinderFragment<T> createAndAdd(FragmentManager fragmentManager, Class<ObjectBinder<T, T>> c) {
-        LifeCycleBinderFragment<T> fragment = create(c);
-        add(fragmentManager, fragment);
-        return fragment;
+    LifeCycleHost<T> getHost() {
+        return host;
+    }
+
+    void addActivityResultRoute(int requestCode, LifeCycleAware<?> listener) {
+        if (host != null) {
+            host.addActivityResultRoute(requestCode, (LifeCycleAware<? super T>) listener);
+        }
+    }
+
+    void updateOptionsMenu(OptionsMenuAware<?> listener) {
+        if (host != null) {
+            host.requestOptionsMenuUpdate((OptionsMenuAware<? super T>) listener);
+        }
+    }
+
+    private boolean isExternalHost() {
+        return getArguments() != null && getArguments().getBoolean(EXTERNAL_HOST);
     }
 
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         this.savedInstanceStateOnCreate = savedInstanceState;
         super.onCreate(savedInstanceState);
-        retainedObjects = initRetainedObjects();
-
-        T parentFragment = (T) getParentFragment();
-        if (parentFragment == null) {
-            viewParam = (T) getActivity();
-        } else {
-            viewParam = parentFragment;
+        if (!isExternalHost()) {
+            T parentFragment = (T) getParentFragment();
+            T viewParam;
+            if (parentFragment == null) {
+                viewParam = (T) getActivity();
+            } else {
+                viewParam = parentFragment;
+            }
+            host = new LifeCycleHost<>(viewParam, savedInstanceState);
         }
     }
 
-    void invokeOnCreate() {
-        invokeBindMethod();
+    void invokeOnCreate(int binderId, StartupTimeline timeline) {
+        host.bind(binderId, timeline);
+        if (host.hasOptionsMenu()) {
+            setHasOptionsMenu(true);
+        }
         Bundle arguments;
         if (getParentFragment() == null) {
             arguments = getActivity().getIntent().getExtras();
         } else {
             arguments = getParentFragment().getArguments();
         }
-        for (LifeCycleAware<? super T> listener : listeners) {
-            listener.onCreate(viewParam, savedInstanceStateOnCreate, getActivity().getIntent(), arguments);
-        }
+        host.dispatchCreate(savedInstanceStateOnCreate, getActivity().getIntent(), arguments);
         savedInstanceStateOnCreate = null;
     }
 
-    private void invokeBindMethod() {
-        Class<ObjectBinder<T, T>> objectBinderClass = (Class<ObjectBinder<T, T>>) getArguments().getSerializable(OBJECT_BINDER_CLASS);
-        ReflectionUtils.invokeBindMethod(objectBinderClass, this, viewParam);
-    }
-
-    private Map<String, LifeCycleAware<?>> initRetainedObjects() {
-        getLoaderManager().initLoader(LOADER_ID, null, new LoaderManager.LoaderCallbacks<Map<String, LifeCycleAware<?>>>() {
-            @Override
-            public Loader<Map<String, LifeCycleAware<?>>> onCreateLoader(int id, Bundle args) {
-                return new RetainedObjectsLoader(getActivity());
-            }
-
-            @Override
-            public void onLoadFinished(Loader<Map<String, LifeCycleAware<?>>> loader, Map<String, LifeCycleAware<?>> data) {
-            }
-
-            @Override
-            public void onLoaderReset(Loader<Map<String, LifeCycleAware<?>>> loader) {
-            }
-        });
-
-        return ((RetainedObjectsLoader) (Loader) getLoaderManager().getLoader(LOADER_ID)).retainedObjects;
-    }
-
     @Nullable @Override public View onCreateView(LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
         View ret = super.onCreateView(inflater, container, savedInstanceState);
-        for (LifeCycleAware<? super T> listener : listeners) {
-            listener.onViewCreated(viewParam, savedInstanceState);
+        if (host != null) {
+            host.dispatchViewCreated(savedInstanceState);
         }
         return ret;
     }
 
     @Override public void onDestroyView() {
         super.onDestroyView();
-        for (LifeCycleAware<? super T> listener : listeners) {
-            listener.onDestroyView(viewParam);
+        if (host != null) {
+            host.dispatchDestroyView();
         }
     }
 
     @Override
     public void onStart() {
         super.onStart();
-        for (LifeCycleAware<? super T> listener : listeners) {
-            listener.onStart(viewParam);
+        if (host != null) {
+            host.dispatchStart();
         }
     }
 
     @Override
     public void onResume() {
         super.onResume();
-        boolean hasMenu = false;
-        for (LifeCycleAware<? super T> listener : listeners) {
-            listener.onResume(viewParam);
-            hasMenu = hasMenu || listener.hasOptionsMenu(viewParam);
-        }
-        if (hasMenu) {
+        if (host != null && host.dispatchResume()) {
             setHasOptionsMenu(true);
         }
     }
@@ -163,18 +154,23 @@ public class LifeCycleBinderFragment<T> extends Fragment implements LifeCycleAwa
     @Override
     public void onCreateOptionsMenu(Menu menu, MenuInflater inflater) {
         super.onCreateOptionsMenu(menu, inflater);
-        for (LifeCycleAware<? super T> listener : listeners) {
-            listener.onCreateOptionsMenu(viewParam, menu, inflater);
+        if (host != null) {
+            host.dispatchCreateOptionsMenu(menu, inflater);
+        }
+    }
+
+    @Override
+    public void onDestroyOptionsMenu() {
+        super.onDestroyOptionsMenu();
+        if (host != null) {
+            host.dispatchDestroyOptionsMenu();
         }
     }
 
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
-        for (LifeCycleAware<? super T> listener : listeners) {
-            boolean ret = listener.onOptionsItemSelected(viewParam, item);
-            if (ret) {
-                return ret;
-            }
+        if (host != null && host.dispatchOptionsItemSelected(item)) {
+            return true;
         }
         return super.onOptionsItemSelected(item);
     }
@@ -182,32 +178,38 @@ public class LifeCycleBinderFragment<T> extends Fragment implements LifeCycleAwa
     @Override
     public void onPause() {
         super.onPause();
-        for (LifeCycleAware<? super T> listener : listeners) {
-            listener.onPause(viewParam);
+        if (host != null) {
+            host.dispatchPause();
         }
     }
 
     @Override
     public void onStop() {
         super.onStop();
-        for (LifeCycleAware<? super T> listener : listeners) {
-            listener.onStop(viewParam);
+        if (host != null) {
+            host.dispatchStop();
         }
     }
 
     @Override
     public void onSaveInstanceState(Bundle outState) {
         super.onSaveInstanceState(outState);
-        for (LifeCycleAware<? super T> listener : listeners) {
-            listener.onSaveInstanceState(viewParam, outState);
+        if (host != null) {
+            if (!isExternalHost()) {
+                host.saveRetainedObjectsToken(outState);
+            }
+            host.dispatchSaveInstanceState(outState);
         }
     }
 
     @Override
     public void onDestroy() {
-        boolean changingConfigurations = getActivity().isChangingConfigurations();
-        for (LifeCycleAware<? super T> listener : listeners) {
-            listener.onDestroy(viewParam, changingConfigurations);
+        if (host != null) {
+            boolean changingConfigurations = getActivity().isChangingConfigurations();
+            host.dispatchDestroy(changingConfigurations);
+            if (changingConfigurations && !isExternalHost()) {
+                host.retainObjects(getActivity());
+            }
         }
         super.onDestroy();
     }
@@ -215,28 +217,8 @@ public class LifeCycleBinderFragment<T> extends Fragment implements LifeCycleAwa
     @Override
     public void onActivityResult(int requestCode, int resultCode, Intent data) {
         super.onActivityResult(requestCode, resultCode, data);
-        for (LifeCycleAware<? super T> listener : listeners) {
-            listener.onActivityResult(viewParam, requestCode, resultCode, data);
-        }
-    }
-
-    @Override
-    public <R extends LifeCycleAware<? super T>> R addRetainedFactory(String key, Callable<R> factory) {
-        R listener = (R) retainedObjects.get(key);
-        if (listener == null) {
-            try {
-                listener = factory.call();
-                retainedObjects.put(key, listener);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+        if (host != null) {
+            host.dispatchActivityResult(requestCode, resultCode, data);
         }
-        addLifeCycleAware(listener);
-        return listener;
-    }
-
-    @Override
-    public void addLifeCycleAware(LifeCycleAware<? super T> lifeCycleAware) {
-        listeners.add(lifeCycleAware);
     }
 }
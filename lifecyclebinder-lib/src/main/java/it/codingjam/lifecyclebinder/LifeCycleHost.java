@@ -0,0 +1,869 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.app.Activity;
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Debug;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.SparseArray;
+import android.view.Menu;
+import android.view.MenuInflater;
+import android.view.MenuItem;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Collects the listeners of a bound object and dispatches the lifecycle events to them,
+ * it's used by all the backends (headless fragment and lifecycle callbacks).
+ */
+class LifeCycleHost<T> implements LifeCycleAwareCollector<T> {
+
+    final T view;
+
+    private static final int FIRST_ALLOCATED_REQUEST_CODE = 0xF000;
+
+    private static final int MAX_REQUEST_CODE = 0xFFFF;
+
+    private static final int FRAGMENT_EVENTS = LifeCycleEvents.HAS_OPTIONS_MENU | LifeCycleEvents.ON_CREATE_OPTIONS_MENU
+            | LifeCycleEvents.ON_OPTIONS_ITEM_SELECTED | LifeCycleEvents.ON_ACTIVITY_RESULT;
+
+    private static final int STARTUP_EVENTS = LifeCycleEvents.ON_CREATE | LifeCycleEvents.ON_VIEW_CREATED
+            | LifeCycleEvents.ON_START | LifeCycleEvents.ON_RESUME;
+
+    /**
+     * Contains the retained objects and the {@link AsyncRetainedTask} of the objects not ready yet.
+     */
+    private final SparseArray<Object> retainedObjects;
+
+    private long retainedObjectsToken;
+
+    private final ListenerTable<T> listeners = new ListenerTable<>();
+
+    /**
+     * Startup events of the {@link Phase#DEFERRED} listeners, the other events of these
+     * listeners are in the listeners table.
+     */
+    private final ListenerTable<T> deferredListeners = new ListenerTable<>();
+
+    /**
+     * Objects that receive the results of a request code, the results are delivered to the listener
+     * registered for the object (it can be a wrapper).
+     */
+    private final SparseArray<LifeCycleAware<? super T>> activityResultOwners = new SparseArray<>();
+
+    private int nextRequestCode = FIRST_ALLOCATED_REQUEST_CODE;
+
+    /**
+     * True when the options menu is declared or when a listener returned true from hasOptionsMenu,
+     * the fragment never disables the menu so the listeners are not invoked again.
+     */
+    private boolean optionsMenu;
+
+    /**
+     * Listeners that added the items of the options menu (null for the items added by the
+     * other objects), it's updated on every onCreateOptionsMenu.
+     */
+    private final SparseArray<LifeCycleAware<? super T>> menuItemOwners = new SparseArray<>();
+
+    /**
+     * Created when the options menu contains the items of a listener.
+     */
+    private OptionsMenuUpdater<T> menuUpdater;
+
+    private int deferredEvents;
+
+    /**
+     * Listeners that implement {@link TransitionAware}, the startup transitions are saved in pendingTransitions
+     * and dispatched together on onResume (or before another event).
+     */
+    private final ListenerTable<T> transitionListeners = new ListenerTable<>();
+
+    private int pendingTransitions;
+
+    private Handler transitionHandler;
+
+    private Runnable transitionFlush;
+
+    private final List<DeferredScheduler.DeferredEvent> pendingDeferredEvents = new ArrayList<>();
+
+    /**
+     * Listeners that implement {@link AsyncLifeCycleAware}, their onCreate is invoked on a background thread.
+     */
+    private final List<LifeCycleAware<? super T>> parallelCreateListeners = new ArrayList<>();
+
+    private CreateBarrier createBarrier;
+
+    private BackgroundLane backgroundLane;
+
+    private LifeCycleMonitor monitor = LifeCycleBinder.monitor;
+
+    private StartupTimeline timeline;
+
+    private final CircuitBreakerPolicy circuitBreakerPolicy = LifeCycleBinder.circuitBreakerPolicy;
+
+    private final List<AsyncRetainedTask<T, ?>> asyncTasks = new ArrayList<>();
+
+    private int asyncEvents;
+
+    private boolean created;
+
+    private Bundle savedInstanceState;
+
+    private Intent intent;
+
+    private Bundle arguments;
+
+    private boolean viewCreated;
+
+    private Bundle viewSavedInstanceState;
+
+    private boolean started;
+
+    private boolean resumed;
+
+    /**
+     * Creates a host using the retained objects of the previous instance, the state is the Bundle that
+     * contains the retained objects token (see {@link #saveRetainedObjectsToken(Bundle)}).
+     */
+    LifeCycleHost(T view, Bundle state) {
+        this.view = view;
+        this.retainedObjects = RetainedObjectsStore.take(state);
+        this.retainedObjectsToken = RetainedObjectsStore.getToken(state);
+    }
+
+    /**
+     * Invokes the binder, the timeline (null when it's not captured) receives the durations until
+     * the end of the first onResume.
+     */
+    void bind(int binderId, StartupTimeline timeline) {
+        if (timeline != null) {
+            this.timeline = timeline;
+            monitor = monitor != null ? new CompositeLifeCycleMonitor(monitor, timeline.monitor) : timeline.monitor;
+        }
+        ObjectBinder<T, T> objectBinder = BinderRegistry.getBinder(binderId);
+        if (monitor == null) {
+            objectBinder.bind(this, view);
+        } else {
+            long wall = System.nanoTime();
+            long threadCpu = Debug.threadCpuTimeNanos();
+            objectBinder.bind(this, view);
+            monitor.onBind(view.getClass(), System.nanoTime() - wall, Debug.threadCpuTimeNanos() - threadCpu);
+        }
+        for (AsyncRetainedTask<T, ?> task : asyncTasks) {
+            task.startIfReady();
+        }
+    }
+
+    void saveRetainedObjectsToken(Bundle state) {
+        if (retainedObjects.size() > 0) {
+            retainedObjectsToken = RetainedObjectsStore.saveToken(state, retainedObjectsToken);
+        }
+    }
+
+    /**
+     * Keeps the retained objects in memory until the Activity (the host or the Activity that contains it)
+     * is created again, it must be invoked when the host is destroyed because of a configuration change.
+     */
+    void retainObjects(Activity activity) {
+        if (retainedObjectsToken != 0) {
+            RetainedObjectsStore.put(retainedObjectsToken, retainedObjects, activity);
+        }
+    }
+
+    /**
+     * Returns true when a listener needs an event that is available only in a fragment
+     * (options menu and activity result).
+     */
+    boolean requiresFragment() {
+        return listeners.get(LifeCycleEvents.HAS_OPTIONS_MENU).length > 0
+                || listeners.get(LifeCycleEvents.ON_CREATE_OPTIONS_MENU).length > 0
+                || listeners.get(LifeCycleEvents.ON_OPTIONS_ITEM_SELECTED).length > 0
+                || listeners.get(LifeCycleEvents.ON_ACTIVITY_RESULT).length > 0
+                || (asyncEvents & FRAGMENT_EVENTS) != 0;
+    }
+
+    void dispatchCreate(final Bundle savedInstanceState, final Intent intent, final Bundle arguments) {
+        created = true;
+        this.savedInstanceState = savedInstanceState;
+        this.intent = intent;
+        this.arguments = arguments;
+        if (!parallelCreateListeners.isEmpty()) {
+            createBarrier = new CreateBarrier(parallelCreateListeners.size());
+            for (final LifeCycleAware<? super T> listener : parallelCreateListeners) {
+                createBarrier.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onCreate(view, savedInstanceState, intent, arguments);
+                    }
+                });
+            }
+        }
+        for (LifeCycleAware<? super T> listener : listeners.get(LifeCycleEvents.ON_CREATE)) {
+            listener.onCreate(view, savedInstanceState, intent, arguments);
+        }
+        for (final LifeCycleAware<? super T> listener : deferredListeners.get(LifeCycleEvents.ON_CREATE)) {
+            defer(new DeferredScheduler.DeferredEvent() {
+                @Override
+                void dispatch() {
+                    listener.onCreate(view, savedInstanceState, intent, arguments);
+                }
+            });
+        }
+        queueTransition(LifeCycleEvents.ON_CREATE);
+    }
+
+    void dispatchViewCreated(final Bundle savedInstanceState) {
+        awaitParallelCreate();
+        viewCreated = true;
+        viewSavedInstanceState = savedInstanceState;
+        for (LifeCycleAware<? super T> listener : listeners.get(LifeCycleEvents.ON_VIEW_CREATED)) {
+            listener.onViewCreated(view, savedInstanceState);
+        }
+        for (final LifeCycleAware<? super T> listener : deferredListeners.get(LifeCycleEvents.ON_VIEW_CREATED)) {
+            defer(new DeferredScheduler.DeferredEvent() {
+                @Override
+                void dispatch() {
+                    listener.onViewCreated(view, savedInstanceState);
+                }
+            });
+        }
+        queueTransition(LifeCycleEvents.ON_VIEW_CREATED);
+    }
+
+    void dispatchDestroyView() {
+        flushTransitions();
+        flushDeferredEvents();
+        viewCreated = false;
+        viewSavedInstanceState = null;
+        for (LifeCycleAware<? super T> listener : listeners.get(LifeCycleEvents.ON_DESTROY_VIEW)) {
+            listener.onDestroyView(view);
+        }
+    }
+
+    void dispatchStart() {
+        awaitParallelCreate();
+        started = true;
+        for (LifeCycleAware<? super T> listener : listeners.get(LifeCycleEvents.ON_START)) {
+            listener.onStart(view);
+        }
+        for (final LifeCycleAware<? super T> listener : deferredListeners.get(LifeCycleEvents.ON_START)) {
+            defer(new DeferredScheduler.DeferredEvent() {
+                @Override
+                void dispatch() {
+                    listener.onStart(view);
+                }
+            });
+        }
+        queueTransition(LifeCycleEvents.ON_START);
+    }
+
+    /**
+     * Invokes onResume on the listeners, returns true if the options menu is enabled.
+     */
+    boolean dispatchResume() {
+        resumed = true;
+        for (LifeCycleAware<? super T> listener : listeners.get(LifeCycleEvents.ON_RESUME)) {
+            listener.onResume(view);
+        }
+        for (final LifeCycleAware<? super T> listener : deferredListeners.get(LifeCycleEvents.ON_RESUME)) {
+            defer(new DeferredScheduler.DeferredEvent() {
+                @Override
+                void dispatch() {
+                    listener.onResume(view);
+                }
+            });
+        }
+        queueTransition(LifeCycleEvents.ON_RESUME);
+        flushTransitions();
+        if (!optionsMenu) {
+            resolveOptionsMenu();
+        }
+        if (timeline != null) {
+            timeline.finish();
+            timeline = null;
+        }
+        return optionsMenu;
+    }
+
+    /**
+     * Saves a transition of the {@link TransitionAware} listeners, the transitions not dispatched by
+     * onResume or by another event are dispatched after the current message of the main thread.
+     */
+    private void queueTransition(int transition) {
+        if (transitionListeners.get(LifeCycleEvents.ON_CREATE).length == 0) {
+            return;
+        }
+        if (pendingTransitions == 0) {
+            if (transitionHandler == null) {
+                transitionHandler = new Handler(Looper.getMainLooper());
+                transitionFlush = new Runnable() {
+                    @Override
+                    public void run() {
+                        flushTransitions();
+                    }
+                };
+            }
+            transitionHandler.post(transitionFlush);
+        }
+        pendingTransitions |= transition;
+    }
+
+    /**
+     * Dispatches the pending transitions using a single pass over the {@link TransitionAware} listeners.
+     */
+    private void flushTransitions() {
+        if (pendingTransitions == 0) {
+            return;
+        }
+        int transitions = pendingTransitions;
+        pendingTransitions = 0;
+        transitionHandler.removeCallbacks(transitionFlush);
+        for (LifeCycleAware<? super T> listener : transitionListeners.get(LifeCycleEvents.ON_CREATE)) {
+            ((TransitionAware<? super T>) listener).onTransitions(view, transitions, savedInstanceState, intent, arguments);
+        }
+    }
+
+    private void resolveOptionsMenu() {
+        LifeCycleAware<? super T>[] menuListeners = listeners.get(LifeCycleEvents.HAS_OPTIONS_MENU);
+        if (menuListeners.length > 0 && (deferredEvents & LifeCycleEvents.HAS_OPTIONS_MENU) != 0) {
+            flushDeferredEvents();
+        }
+        for (LifeCycleAware<? super T> listener : menuListeners) {
+            if (listener.hasOptionsMenu(view)) {
+                optionsMenu = true;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns true when the options menu has been declared using {@link #setHasOptionsMenu()}
+     * or enabled by a listener.
+     */
+    boolean hasOptionsMenu() {
+        return optionsMenu;
+    }
+
+    /**
+     * Invokes onCreateOptionsMenu on the listeners and saves the listener that added each
+     * menu item (see {@link #dispatchOptionsItemSelected(MenuItem)}).
+     */
+    void dispatchCreateOptionsMenu(Menu menu, MenuInflater inflater) {
+        flushTransitions();
+        flushDeferredEvents();
+        menuItemOwners.clear();
+        LifeCycleAware<? super T>[] menuListeners = listeners.get(LifeCycleEvents.ON_CREATE_OPTIONS_MENU);
+        if (menuListeners.length == 0) {
+            return;
+        }
+        indexMenuItems(menu, null);
+        for (LifeCycleAware<? super T> listener : menuListeners) {
+            listener.onCreateOptionsMenu(view, menu, inflater);
+            indexMenuItems(menu, listener);
+        }
+        if (menuUpdater == null) {
+            menuUpdater = new OptionsMenuUpdater<>(this);
+        }
+        menuUpdater.setMenu(menu);
+    }
+
+    void dispatchDestroyOptionsMenu() {
+        menuItemOwners.clear();
+        if (menuUpdater != null) {
+            menuUpdater.setMenu(null);
+        }
+    }
+
+    /**
+     * Requests an update of the menu items of the listener, the requests are coalesced and applied
+     * on the next frame (see {@link OptionsMenuUpdater}).
+     */
+    void requestOptionsMenuUpdate(OptionsMenuAware<? super T> listener) {
+        if (menuUpdater != null) {
+            menuUpdater.request(listener);
+        }
+    }
+
+    private void indexMenuItems(Menu menu, LifeCycleAware<? super T> owner) {
+        for (int i = 0; i < menu.size(); i++) {
+            int itemId = menu.getItem(i).getItemId();
+            if (itemId != Menu.NONE && menuItemOwners.indexOfKey(itemId) < 0) {
+                menuItemOwners.put(itemId, owner);
+            }
+        }
+    }
+
+    /**
+     * Invokes onOptionsItemSelected on the listener that added the item, the other listeners
+     * are invoked only when the item has no owner or when the owner doesn't consume the event.
+     */
+    boolean dispatchOptionsItemSelected(MenuItem item) {
+        flushTransitions();
+        flushDeferredEvents();
+        LifeCycleAware<? super T> owner = menuItemOwners.get(item.getItemId());
+        if (owner != null && owner.onOptionsItemSelected(view, item)) {
+            return true;
+        }
+        for (LifeCycleAware<? super T> listener : listeners.get(LifeCycleEvents.ON_OPTIONS_ITEM_SELECTED)) {
+            if (listener != owner && listener.onOptionsItemSelected(view, item)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void dispatchPause() {
+        flushTransitions();
+        flushDeferredEvents();
+        resumed = false;
+        for (LifeCycleAware<? super T> listener : listeners.get(LifeCycleEvents.ON_PAUSE)) {
+            listener.onPause(view);
+        }
+    }
+
+    void dispatchStop() {
+        flushTransitions();
+        flushDeferredEvents();
+        started = false;
+        for (LifeCycleAware<? super T> listener : listeners.get(LifeCycleEvents.ON_STOP)) {
+            listener.onStop(view);
+        }
+    }
+
+    void dispatchSaveInstanceState(Bundle outState) {
+        flushTransitions();
+        flushDeferredEvents();
+        for (LifeCycleAware<? super T> listener : listeners.get(LifeCycleEvents.ON_SAVE_INSTANCE_STATE)) {
+            listener.onSaveInstanceState(view, outState);
+        }
+    }
+
+    void dispatchDestroy(boolean changingConfigurations) {
+        awaitParallelCreate();
+        flushTransitions();
+        flushDeferredEvents();
+        created = false;
+        for (AsyncRetainedTask<T, ?> task : asyncTasks) {
+            task.detach(this);
+        }
+        asyncTasks.clear();
+        dispatchDestroyOptionsMenu();
+        for (LifeCycleAware<? super T> listener : listeners.get(LifeCycleEvents.ON_DESTROY)) {
+            listener.onDestroy(view, changingConfigurations);
+        }
+    }
+
+    /**
+     * Delivers the result to the listener that owns the request code (the result is dropped when it's muted),
+     * the results of the other codes are delivered to all the listeners.
+     */
+    void dispatchActivityResult(int requestCode, int resultCode, Intent data) {
+        flushTransitions();
+        flushDeferredEvents();
+        LifeCycleAware<? super T> owner = activityResultOwners.get(requestCode);
+        if (owner != null) {
+            if (listeners.isMuted(owner)) {
+                return;
+            }
+            LifeCycleAware<? super T> route = listeners.getListener(owner);
+            if (route == null) {
+                route = monitored(owner, owner.getClass());
+            }
+            route.onActivityResult(view, requestCode, resultCode, data);
+            return;
+        }
+        for (LifeCycleAware<? super T> listener : listeners.get(LifeCycleEvents.ON_ACTIVITY_RESULT)) {
+            listener.onActivityResult(view, requestCode, resultCode, data);
+        }
+    }
+
+    /**
+     * Routes the results of the request code to the listener, throws an exception if the
+     * code is already used by another listener.
+     */
+    void addActivityResultRoute(int requestCode, LifeCycleAware<? super T> lifeCycleAware) {
+        LifeCycleAware<? super T> owner = activityResultOwners.get(requestCode);
+        if (owner == lifeCycleAware) {
+            return;
+        }
+        if (owner != null) {
+            throw new IllegalStateException("Request code " + requestCode + " is already used by " + owner.getClass().getName());
+        }
+        activityResultOwners.put(requestCode, lifeCycleAware);
+    }
+
+    private int allocateRequestCode() {
+        while (activityResultOwners.get(nextRequestCode) != null) {
+            nextRequestCode++;
+        }
+        if (nextRequestCode > MAX_REQUEST_CODE) {
+            throw new IllegalStateException("Too many request codes allocated by " + view.getClass().getName());
+        }
+        return nextRequestCode++;
+    }
+
+    private void awaitParallelCreate() {
+        if (createBarrier != null) {
+            CreateBarrier barrier = createBarrier;
+            createBarrier = null;
+            barrier.await();
+        }
+    }
+
+    void defer(DeferredScheduler.DeferredEvent event) {
+        pendingDeferredEvents.add(event);
+        DeferredScheduler.get().enqueue(event);
+    }
+
+    /**
+     * Runs the deferred events not executed yet, it's invoked before dispatching an event
+     * that must be received after them.
+     */
+    void flushDeferredEvents() {
+        if (!pendingDeferredEvents.isEmpty()) {
+            for (DeferredScheduler.DeferredEvent event : pendingDeferredEvents) {
+                event.run();
+            }
+            pendingDeferredEvents.clear();
+        }
+    }
+
+    @Override
+    public <R extends LifeCycleAware<? super T>> R addRetainedFactory(String key, Callable<R> factory) {
+        return addRetainedFactory(RetainedKeys.of(key), factory);
+    }
+
+    @Override
+    public <R extends LifeCycleAware<? super T>> R addRetainedFactory(String key, Callable<R> factory, Class<?> declaredType, int events) {
+        return addRetainedFactory(RetainedKeys.of(key), factory, declaredType, events);
+    }
+
+    @Override
+    public <R extends LifeCycleAware<? super T>> R getRetainedObject(String key, Callable<R> factory) {
+        return getRetainedObject(RetainedKeys.of(key), factory);
+    }
+
+    @Override
+    public <R extends LifeCycleAware<? super T>> R addRetainedFactory(int key, Callable<R> factory) {
+        R listener = getRetainedObject(key, factory);
+        addLifeCycleAware(listener);
+        return listener;
+    }
+
+    @Override
+    public <R extends LifeCycleAware<? super T>> R addRetainedFactory(int key, Callable<R> factory, Class<?> declaredType, int events) {
+        R listener = getRetainedObject(key, factory);
+        addLifeCycleAware(listener, declaredType, events);
+        return listener;
+    }
+
+    @Override
+    public <R extends LifeCycleAware<? super T>> R getRetainedObject(int key, Callable<R> factory) {
+        Object retainedObject = retainedObjects.get(key);
+        if (retainedObject instanceof AsyncRetainedTask) {
+            AsyncRetainedTask<T, R> task = (AsyncRetainedTask<T, R>) retainedObject;
+            if (!task.isDone()) {
+                throw new IllegalStateException("Retained object " + key + " is created asynchronously and it's not ready yet");
+            }
+            retainedObject = task.getResult();
+            retainedObjects.put(key, retainedObject);
+        }
+        R listener = (R) retainedObject;
+        if (listener == null) {
+            try {
+                long start = System.nanoTime();
+                listener = factory.call();
+                if (timeline != null && listener != null) {
+                    timeline.add("retained " + listener.getClass().getSimpleName(), "retained", start);
+                }
+                retainedObjects.put(key, listener);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return listener;
+    }
+
+    @Override
+    public <R extends LifeCycleAware<? super T>> void addAsyncRetainedFactory(int key, Callable<R> factory, int[] dependencies,
+                                                                              Class<?> declaredType, int events, RetainedObjectCallback<R> callback) {
+        asyncEvents |= events;
+        Object retainedObject = retainedObjects.get(key);
+        if (retainedObject instanceof AsyncRetainedTask) {
+            AsyncRetainedTask<T, R> task = (AsyncRetainedTask<T, R>) retainedObject;
+            if (!task.isDone()) {
+                task.setHost(this, factory, declaredType, events, callback);
+                asyncTasks.add(task);
+                return;
+            }
+            retainedObject = task.getResult();
+            retainedObjects.put(key, retainedObject);
+        }
+        if (retainedObject != null) {
+            R listener = (R) retainedObject;
+            if (callback != null) {
+                callback.onRetainedObjectReady(listener);
+            }
+            addLifeCycleAware(listener, declaredType, events);
+            return;
+        }
+        AsyncRetainedTask<T, R> task = new AsyncRetainedTask<>(key);
+        task.setHost(this, factory, declaredType, events, callback);
+        if (dependencies != null) {
+            for (int dependency : dependencies) {
+                Object dependencyTask = retainedObjects.get(dependency);
+                if (dependencyTask instanceof AsyncRetainedTask) {
+                    task.addDependency((AsyncRetainedTask<?, ?>) dependencyTask);
+                }
+            }
+        }
+        retainedObjects.put(key, task);
+        asyncTasks.add(task);
+    }
+
+    /**
+     * Invoked on the main thread when an async retained object is ready, the object receives
+     * the events already dispatched to the other listeners.
+     */
+    <R extends LifeCycleAware<? super T>> void onAsyncRetainedObjectReady(int key, R retainedObject, Class<?> declaredType,
+                                                                         int events, RetainedObjectCallback<R> callback) {
+        retainedObjects.put(key, retainedObject);
+        if (callback != null) {
+            callback.onRetainedObjectReady(retainedObject);
+        }
+        int resolvedEvents = ListenerTable.resolveEvents(retainedObject, declaredType, events);
+        register(retainedObject, monitored(retainedObject, retainedObject.getClass()), resolvedEvents);
+    }
+
+    /**
+     * Adds the listener of the given owner (ignored when the owner is already a listener), the listener receives
+     * the events already dispatched to the other listeners.
+     */
+    private boolean register(Object owner, LifeCycleAware<? super T> listener, int events) {
+        if (!listeners.add(owner, listener, events)) {
+            return false;
+        }
+        replayMissedEvents(listener, events);
+        return true;
+    }
+
+    /**
+     * Dispatches the transitions already dispatched to the other listeners, the pending ones are
+     * dispatched by {@link #flushTransitions()}.
+     */
+    private void replayMissedTransitions(TransitionAware<? super T> listener) {
+        int transitions = (created ? LifeCycleEvents.ON_CREATE : 0) | (viewCreated ? LifeCycleEvents.ON_VIEW_CREATED : 0)
+                | (started ? LifeCycleEvents.ON_START : 0) | (resumed ? LifeCycleEvents.ON_RESUME : 0);
+        transitions &= ~pendingTransitions;
+        if (transitions != 0) {
+            listener.onTransitions(view, transitions, savedInstanceState, intent, arguments);
+        }
+    }
+
+    private void replayMissedEvents(LifeCycleAware<? super T> listener, int events) {
+        if (created && (events & LifeCycleEvents.ON_CREATE) != 0) {
+            listener.onCreate(view, savedInstanceState, intent, arguments);
+        }
+        if (viewCreated && (events & LifeCycleEvents.ON_VIEW_CREATED) != 0) {
+            listener.onViewCreated(view, viewSavedInstanceState);
+        }
+        if (started && (events & LifeCycleEvents.ON_START) != 0) {
+            listener.onStart(view);
+        }
+        if (resumed && (events & LifeCycleEvents.ON_RESUME) != 0) {
+            listener.onResume(view);
+        }
+    }
+
+    @Override
+    public <R extends LifeCycleAware<? super T>> void addLazyRetainedFactory(final int key, final Callable<R> factory, Class<?> declaredType,
+                                                                             int events, final RetainedObjectCallback<R> callback) {
+        Object retainedObject = retainedObjects.get(key);
+        if (retainedObject != null && !(retainedObject instanceof AsyncRetainedTask)) {
+            R listener = (R) retainedObject;
+            if (callback != null) {
+                callback.onRetainedObjectReady(listener);
+            }
+            addLifeCycleAware(listener, declaredType, events);
+            return;
+        }
+        addLazyLifeCycleAware(new Callable<R>() {
+            @Override
+            public R call() throws Exception {
+                R listener = getRetainedObject(key, factory);
+                if (callback != null) {
+                    callback.onRetainedObjectReady(listener);
+                }
+                return listener;
+            }
+        }, declaredType, events);
+    }
+
+    @Override
+    public <R extends LifeCycleAware<? super T>> void addLazyLifeCycleAware(final Callable<R> provider, final Class<?> declaredType,
+                                                                            final int events) {
+        LazyLifeCycleAware<T, R> placeholder = new LazyLifeCycleAware<T, R>(provider) {
+            @Override
+            LifeCycleAware<? super T> wrap(R object) {
+                LifeCycleAware<? super T> listener = monitored(object, object.getClass());
+                onLazyObjectCreated(provider, listener, events, ListenerTable.resolveEvents(object, declaredType, events));
+                return listener;
+            }
+        };
+        register(provider, placeholder, events);
+    }
+
+    /**
+     * The placeholder of a lazy object is registered using the events of the declared type, the object can be
+     * a subclass overriding other methods: it's registered again using its own events and it receives the
+     * events it missed.
+     */
+    private void onLazyObjectCreated(Object owner, LifeCycleAware<? super T> listener, int declaredEvents, int events) {
+        if (listeners.replace(owner, listener, events)) {
+            replayMissedEvents(listener, events & ~declaredEvents);
+        }
+    }
+
+    @Override
+    public void addDeferredLifeCycleAware(LifeCycleAware<? super T> lifeCycleAware, Class<?> declaredType, int events) {
+        if (listeners.contains(lifeCycleAware)) {
+            return;
+        }
+        final int resolvedEvents = ListenerTable.resolveEvents(lifeCycleAware, declaredType, events);
+        final LifeCycleAware<? super T> listener = monitored(lifeCycleAware, lifeCycleAware.getClass());
+        listeners.add(lifeCycleAware, listener, resolvedEvents & ~STARTUP_EVENTS);
+        deferredListeners.add(lifeCycleAware, listener, resolvedEvents & STARTUP_EVENTS);
+        deferredEvents |= resolvedEvents;
+        if (created) {
+            defer(new DeferredScheduler.DeferredEvent() {
+                @Override
+                void dispatch() {
+                    replayMissedEvents(listener, resolvedEvents & STARTUP_EVENTS);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void addBackgroundLifeCycleAware(LifeCycleAware<? super T> lifeCycleAware, Class<?> declaredType, int events) {
+        if (listeners.contains(lifeCycleAware)) {
+            return;
+        }
+        if (backgroundLane == null) {
+            backgroundLane = new BackgroundLane();
+        }
+        int resolvedEvents = ListenerTable.resolveEvents(lifeCycleAware, declaredType, events);
+        register(lifeCycleAware, new BackgroundLifeCycleAware<T>(monitored(lifeCycleAware, lifeCycleAware.getClass()), backgroundLane,
+                resolvedEvents), resolvedEvents);
+    }
+
+    @Override
+    public void addOptionalLifeCycleAware(LifeCycleAware<? super T> lifeCycleAware, Class<?> declaredType, int events) {
+        if (circuitBreakerPolicy == null) {
+            addLifeCycleAware(lifeCycleAware, declaredType, events);
+            return;
+        }
+        CircuitBreakerPolicy.State state = circuitBreakerPolicy.getState(lifeCycleAware.getClass());
+        if (state.demotion == CircuitBreakerPolicy.Demotion.DISABLED) {
+            return;
+        }
+        register(lifeCycleAware, new OptionalLifeCycleAware<T>(monitored(lifeCycleAware, lifeCycleAware.getClass()), circuitBreakerPolicy, state, this),
+                ListenerTable.resolveEvents(lifeCycleAware, declaredType, events));
+    }
+
+    void addRequestCodes(LifeCycleAware<? super T> lifeCycleAware, int[] requestCodes) {
+        for (int requestCode : requestCodes) {
+            addActivityResultRoute(requestCode, lifeCycleAware);
+        }
+    }
+
+    void setHasOptionsMenu() {
+        optionsMenu = true;
+    }
+
+    @Override
+    public void addLifeCycleAware(LifeCycleAware<? super T> lifeCycleAware) {
+        addListener(lifeCycleAware, LifeCycleEvents.ALL);
+    }
+
+    @Override
+    public void addLifeCycleAware(LifeCycleAware<? super T> lifeCycleAware, Class<?> declaredType, int events) {
+        addListener(lifeCycleAware, ListenerTable.resolveEvents(lifeCycleAware, declaredType, events));
+    }
+
+    private void addListener(LifeCycleAware<? super T> lifeCycleAware, int events) {
+        if (listeners.contains(lifeCycleAware)) {
+            return;
+        }
+        LifeCycleAware<? super T> listener = monitored(lifeCycleAware, lifeCycleAware.getClass());
+        if (lifeCycleAware instanceof TransitionAware) {
+            //the transitions table uses ON_CREATE as key, all the transitions are dispatched to every listener
+            transitionListeners.add(lifeCycleAware, lifeCycleAware, LifeCycleEvents.ON_CREATE);
+            events &= ~STARTUP_EVENTS;
+            replayMissedTransitions((TransitionAware<? super T>) lifeCycleAware);
+        } else if (!created && (events & LifeCycleEvents.ON_CREATE) != 0 && lifeCycleAware instanceof AsyncLifeCycleAware) {
+            parallelCreateListeners.add(listener);
+            events &= ~LifeCycleEvents.ON_CREATE;
+        }
+        register(lifeCycleAware, listener, events);
+        if (lifeCycleAware instanceof RequestCodeAware) {
+            int requestCode = allocateRequestCode();
+            addActivityResultRoute(requestCode, lifeCycleAware);
+            ((RequestCodeAware<?>) lifeCycleAware).onRequestCodeAllocated(requestCode);
+        }
+    }
+
+    @Override
+    public boolean removeLifeCycleAware(LifeCycleAware<? super T> lifeCycleAware) {
+        LifeCycleAware<? super T> listener = listeners.remove(lifeCycleAware);
+        if (listener == null) {
+            return false;
+        }
+        deferredListeners.remove(lifeCycleAware);
+        transitionListeners.remove(lifeCycleAware);
+        parallelCreateListeners.remove(listener);
+        for (int i = activityResultOwners.size() - 1; i >= 0; i--) {
+            if (activityResultOwners.valueAt(i) == lifeCycleAware) {
+                activityResultOwners.removeAt(i);
+            }
+        }
+        for (int i = menuItemOwners.size() - 1; i >= 0; i--) {
+            if (menuItemOwners.valueAt(i) == listener) {
+                menuItemOwners.setValueAt(i, null);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void setLifeCycleAwareMuted(LifeCycleAware<? super T> lifeCycleAware, boolean muted) {
+        listeners.setMuted(lifeCycleAware, muted);
+        deferredListeners.setMuted(lifeCycleAware, muted);
+        transitionListeners.setMuted(lifeCycleAware, muted);
+    }
+
+    private LifeCycleAware<? super T> monitored(LifeCycleAware<? super T> listener, Class<?> listenerClass) {
+        if (monitor == null) {
+            return listener;
+        }
+        return new MonitoredLifeCycleAware<T>(listener, monitor, view.getClass(), listenerClass);
+    }
+}
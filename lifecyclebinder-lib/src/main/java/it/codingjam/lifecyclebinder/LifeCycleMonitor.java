@@ -0,0 +1,37 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+/**
+ * Receives the duration of the bind methods and of the listener callbacks, it can be installed using
+ * {@link LifeCycleBinder#setMonitor(LifeCycleMonitor)} before binding the objects to monitor.
+ * The methods are invoked on the thread that executed the callback, the durations are in nanoseconds
+ * (the wall time and the cpu time of the thread).
+ */
+public interface LifeCycleMonitor {
+    void onBind(Class<?> hostClass, long wallNanos, long threadCpuNanos);
+
+    /**
+     * Invoked before a callback, the event is one of the {@link LifeCycleEvents} constants.
+     */
+    void onCallbackStart(Class<?> hostClass, Class<?> listenerClass, int event);
+
+    /**
+     * Invoked after a callback, also when the callback throws an exception.
+     */
+    void onCallback(Class<?> hostClass, Class<?> listenerClass, int event, long wallNanos, long threadCpuNanos);
+}
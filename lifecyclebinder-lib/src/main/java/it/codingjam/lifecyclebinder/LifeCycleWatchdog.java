@@ -0,0 +1,204 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.StrictMode;
+import android.util.Log;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Debug {@link LifeCycleMonitor} that reports the main thread callbacks slower than a threshold,
+ * optionally sampling the main thread stack while the slow callback is still running. The StrictMode
+ * violations can be attributed to the listener that caused them (see {@link #attributeStrictModeViolations()}).
+ * The problems are logged and saved in a {@link WatchdogReport} for each host class.
+ */
+public class LifeCycleWatchdog implements LifeCycleMonitor {
+
+    private static final String TAG = "LifeCycleWatchdog";
+
+    private final long thresholdNanos;
+
+    private final Thread mainThread = Looper.getMainLooper().getThread();
+
+    private final Map<Class<?>, WatchdogReport> reports = new HashMap<>();
+
+    private final Handler samplerHandler;
+
+    private final Runnable sampler = new Runnable() {
+        @Override
+        public void run() {
+            int sequence = activeSequence;
+            StackTraceElement[] stackTrace = mainThread.getStackTrace();
+            if (sequence == activeSequence && depth > 0) {
+                sampledStackTrace = stackTrace;
+                sampledSequence = sequence;
+            }
+        }
+    };
+
+    private volatile int depth;
+
+    private volatile int activeSequence;
+
+    private volatile StackTraceElement[] sampledStackTrace;
+
+    private volatile int sampledSequence = -1;
+
+    private volatile Class<?> activeHostClass;
+
+    /**
+     * When sampleStack is true the main thread stack is sampled (using a background thread)
+     * when a callback is running for more than the threshold.
+     */
+    public LifeCycleWatchdog(long thresholdMillis, boolean sampleStack) {
+        this.thresholdNanos = thresholdMillis * 1000 * 1000;
+        if (sampleStack) {
+            HandlerThread thread = new HandlerThread(TAG);
+            thread.start();
+            samplerHandler = new Handler(thread.getLooper());
+        } else {
+            samplerHandler = null;
+        }
+    }
+
+    @Override
+    public void onBind(Class<?> hostClass, long wallNanos, long threadCpuNanos) {
+    }
+
+    @Override
+    public void onCallbackStart(Class<?> hostClass, Class<?> listenerClass, int event) {
+        if (Thread.currentThread() != mainThread) {
+            return;
+        }
+        activeHostClass = hostClass;
+        if (depth++ == 0) {
+            activeSequence++;
+            if (samplerHandler != null) {
+                samplerHandler.postDelayed(sampler, thresholdNanos / 1000 / 1000);
+            }
+        }
+    }
+
+    @Override
+    public void onCallback(Class<?> hostClass, Class<?> listenerClass, int event, long wallNanos, long threadCpuNanos) {
+        if (Thread.currentThread() != mainThread || depth == 0) {
+            return;
+        }
+        if (--depth > 0) {
+            return;
+        }
+        if (samplerHandler != null) {
+            samplerHandler.removeCallbacks(sampler);
+        }
+        if (wallNanos >= thresholdNanos) {
+            StackTraceElement[] stackTrace = sampledSequence == activeSequence ? sampledStackTrace : null;
+            report(hostClass, new WatchdogReport.Entry(WatchdogReport.Type.SLOW_CALLBACK, listenerClass.getName(),
+                    LifeCycleEvents.getMethodName(event), wallNanos, stackTrace));
+        }
+    }
+
+    /**
+     * Enables the detection of disk and network access on the main thread, the violations are attributed
+     * to the listener found in the violation stack. It must be invoked on the main thread, the StrictMode
+     * listener used to receive the violations is available only on Android 9 and later.
+     */
+    public void attributeStrictModeViolations() {
+        if (Build.VERSION.SDK_INT < 28) {
+            Log.w(TAG, "StrictMode violations attribution is not available on this Android version");
+            return;
+        }
+        try {
+            Class<?> listenerType = Class.forName("android.os.StrictMode$OnThreadViolationListener");
+            Object listener = Proxy.newProxyInstance(listenerType.getClassLoader(), new Class<?>[]{listenerType}, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.invoke(LifeCycleWatchdog.this, args);
+                    }
+                    onStrictModeViolation((Throwable) args[0]);
+                    return null;
+                }
+            });
+            StrictMode.ThreadPolicy.Builder builder = new StrictMode.ThreadPolicy.Builder(StrictMode.getThreadPolicy())
+                    .detectDiskReads()
+                    .detectDiskWrites()
+                    .detectNetwork();
+            Executor executor = new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    command.run();
+                }
+            };
+            StrictMode.ThreadPolicy.Builder.class.getMethod("penaltyListener", Executor.class, listenerType)
+                    .invoke(builder, executor, listener);
+            StrictMode.setThreadPolicy(builder.build());
+        } catch (Exception e) {
+            Log.w(TAG, "Error enabling StrictMode violations attribution", e);
+        }
+    }
+
+    /**
+     * The listener is the frame invoked by the first {@link MonitoredLifeCycleAware} frame.
+     */
+    void onStrictModeViolation(Throwable violation) {
+        StackTraceElement[] stackTrace = violation.getStackTrace();
+        String monitoredClassName = MonitoredLifeCycleAware.class.getName();
+        for (int i = 1; i < stackTrace.length; i++) {
+            if (stackTrace[i].getClassName().equals(monitoredClassName)) {
+                Class<?> hostClass = activeHostClass;
+                if (hostClass != null) {
+                    report(hostClass, new WatchdogReport.Entry(WatchdogReport.Type.STRICT_MODE_VIOLATION,
+                            stackTrace[i - 1].getClassName(), stackTrace[i].getMethodName(), 0, stackTrace));
+                }
+                return;
+            }
+        }
+    }
+
+    private void report(Class<?> hostClass, WatchdogReport.Entry entry) {
+        Log.w(TAG, hostClass.getName() + ": " + entry);
+        WatchdogReport report;
+        synchronized (this) {
+            report = reports.get(hostClass);
+            if (report == null) {
+                report = new WatchdogReport(hostClass);
+                reports.put(hostClass, report);
+            }
+        }
+        report.add(entry);
+    }
+
+    public synchronized WatchdogReport getReport(Class<?> hostClass) {
+        return reports.get(hostClass);
+    }
+
+    public synchronized List<WatchdogReport> getReports() {
+        return new ArrayList<>(reports.values());
+    }
+}
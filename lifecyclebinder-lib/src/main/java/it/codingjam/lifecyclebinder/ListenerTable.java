@@ -0,0 +1,235 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a listeners array for each {@link LifeCycleEvents} event, a listener is added only
+ * to the arrays of the methods it overrides. The arrays are copied when they change so they can be
+ * iterated during a dispatch without allocations, even if a listener is added or removed.
+ * Every listener is registered using its owner (the bound object, the listener can be a wrapper),
+ * an owner is registered only once.
+ */
+class ListenerTable<T> {
+
+    private static final LifeCycleAware[] EMPTY = new LifeCycleAware[0];
+
+    private final LifeCycleAware<? super T>[][] listeners = new LifeCycleAware[LifeCycleEvents.COUNT][];
+
+    /**
+     * Registrations in the order they are added, the removed ones are null until the list is compacted.
+     */
+    private final List<Registration<T>> registrations = new ArrayList<>();
+
+    private final Map<Object, Registration<T>> owners = new IdentityHashMap<>();
+
+    /**
+     * Muted registrations (by index), they are not in the listeners arrays.
+     */
+    private final BitSet muted = new BitSet();
+
+    private int removed;
+
+    ListenerTable() {
+        Arrays.fill(listeners, EMPTY);
+    }
+
+    static int resolveEvents(Object listener, Class<?> declaredType, int events) {
+        return listener.getClass() == declaredType ? events : LifeCycleEvents.ALL;
+    }
+
+    void add(LifeCycleAware<? super T> listener, int events) {
+        add(listener, listener, events);
+    }
+
+    /**
+     * Adds the listener of the given owner, returns false (and the listener is not added) when
+     * the owner is already registered.
+     */
+    boolean add(Object owner, LifeCycleAware<? super T> listener, int events) {
+        if (owners.containsKey(owner)) {
+            return false;
+        }
+        Registration<T> registration = new Registration<>(registrations.size(), listener, events);
+        registrations.add(registration);
+        owners.put(owner, registration);
+        for (int i = 0; i < LifeCycleEvents.COUNT; i++) {
+            if ((events & (1 << i)) != 0) {
+                LifeCycleAware<? super T>[] current = listeners[i];
+                LifeCycleAware<? super T>[] updated = Arrays.copyOf(current, current.length + 1);
+                updated[current.length] = listener;
+                listeners[i] = updated;
+            }
+        }
+        return true;
+    }
+
+    boolean contains(Object owner) {
+        return owners.containsKey(owner);
+    }
+
+    /**
+     * Returns the listener registered for the owner (it can be a wrapper), null when the owner is not registered.
+     */
+    LifeCycleAware<? super T> getListener(Object owner) {
+        Registration<T> registration = owners.get(owner);
+        return registration != null ? registration.listener : null;
+    }
+
+    /**
+     * Removes the listener of the given owner, returns the removed listener or null when the owner
+     * is not registered.
+     */
+    LifeCycleAware<? super T> remove(Object owner) {
+        Registration<T> registration = owners.remove(owner);
+        if (registration == null) {
+            return null;
+        }
+        registrations.set(registration.index, null);
+        if (!muted.get(registration.index)) {
+            removeFromArrays(registration);
+        }
+        muted.clear(registration.index);
+        removed++;
+        if (removed > registrations.size() / 2) {
+            compact();
+        }
+        return registration.listener;
+    }
+
+    /**
+     * Replaces the listener and the events of the given owner keeping its position and its muted state,
+     * returns false when the owner is not registered.
+     */
+    boolean replace(Object owner, LifeCycleAware<? super T> listener, int events) {
+        Registration<T> registration = owners.get(owner);
+        if (registration == null) {
+            return false;
+        }
+        int previousEvents = registration.events;
+        registration.listener = listener;
+        registration.events = events;
+        rebuild(previousEvents | events);
+        return true;
+    }
+
+    /**
+     * Mutes or unmutes the listener of the given owner, returns false when the owner is not registered.
+     */
+    boolean setMuted(Object owner, boolean mute) {
+        Registration<T> registration = owners.get(owner);
+        if (registration == null) {
+            return false;
+        }
+        if (muted.get(registration.index) != mute) {
+            muted.set(registration.index, mute);
+            if (mute) {
+                removeFromArrays(registration);
+            } else {
+                rebuild(registration.events);
+            }
+        }
+        return true;
+    }
+
+    boolean isMuted(Object owner) {
+        Registration<T> registration = owners.get(owner);
+        return registration != null && muted.get(registration.index);
+    }
+
+    LifeCycleAware<? super T>[] get(int event) {
+        return listeners[LifeCycleEvents.indexOf(event)];
+    }
+
+    /**
+     * Removes the listener of the registration from the arrays of its events, the other
+     * listeners keep their order.
+     */
+    private void removeFromArrays(Registration<T> registration) {
+        for (int i = 0; i < LifeCycleEvents.COUNT; i++) {
+            if ((registration.events & (1 << i)) != 0) {
+                LifeCycleAware<? super T>[] current = listeners[i];
+                for (int j = 0; j < current.length; j++) {
+                    if (current[j] == registration.listener) {
+                        if (current.length == 1) {
+                            listeners[i] = EMPTY;
+                        } else {
+                            LifeCycleAware<? super T>[] updated = new LifeCycleAware[current.length - 1];
+                            System.arraycopy(current, 0, updated, 0, j);
+                            System.arraycopy(current, j + 1, updated, j, current.length - j - 1);
+                            listeners[i] = updated;
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private void rebuild(int events) {
+        for (int i = 0; i < LifeCycleEvents.COUNT; i++) {
+            int event = 1 << i;
+            if ((events & event) != 0) {
+                List<LifeCycleAware<? super T>> eventListeners = new ArrayList<>();
+                for (Registration<T> registration : registrations) {
+                    if (registration != null && (registration.events & event) != 0 && !muted.get(registration.index)) {
+                        eventListeners.add(registration.listener);
+                    }
+                }
+                listeners[i] = eventListeners.isEmpty() ? EMPTY : eventListeners.toArray(new LifeCycleAware[eventListeners.size()]);
+            }
+        }
+    }
+
+    private void compact() {
+        BitSet compactedMuted = new BitSet();
+        int index = 0;
+        for (Registration<T> registration : registrations) {
+            if (registration != null) {
+                if (muted.get(registration.index)) {
+                    compactedMuted.set(index);
+                }
+                registration.index = index++;
+            }
+        }
+        registrations.removeAll(Collections.singleton(null));
+        muted.clear();
+        muted.or(compactedMuted);
+        removed = 0;
+    }
+
+    private static class Registration<T> {
+        int index;
+
+        LifeCycleAware<? super T> listener;
+
+        int events;
+
+        Registration(int index, LifeCycleAware<? super T> listener, int events) {
+            this.index = index;
+            this.listener = listener;
+            this.events = events;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Debug;
+import android.view.Menu;
+import android.view.MenuInflater;
+import android.view.MenuItem;
+
+/**
+ * Registered in place of a listener when a {@link LifeCycleMonitor} is installed, it measures
+ * the duration of every callback (also when the callback throws an exception).
+ */
+class MonitoredLifeCycleAware<T> implements LifeCycleAware<T> {
+
+    private final LifeCycleAware<? super T> listener;
+
+    private final LifeCycleMonitor monitor;
+
+    private final Class<?> hostClass;
+
+    private final Class<?> listenerClass;
+
+    MonitoredLifeCycleAware(LifeCycleAware<? super T> listener, LifeCycleMonitor monitor, Class<?> hostClass, Class<?> listenerClass) {
+        this.listener = listener;
+        this.monitor = monitor;
+        this.hostClass = hostClass;
+        this.listenerClass = listenerClass;
+    }
+
+    @Override
+    public void onCreate(T view, Bundle savedInstanceState, Intent intent, Bundle arguments) {
+        monitor.onCallbackStart(hostClass, listenerClass, LifeCycleEvents.ON_CREATE);
+        long wall = System.nanoTime();
+        long threadCpu = Debug.threadCpuTimeNanos();
+        try {
+            listener.onCreate(view, savedInstanceState, intent, arguments);
+        } finally {
+            record(LifeCycleEvents.ON_CREATE, wall, threadCpu);
+        }
+    }
+
+    @Override
+    public void onViewCreated(T view, Bundle savedInstanceState) {
+        monitor.onCallbackStart(hostClass, listenerClass, LifeCycleEvents.ON_VIEW_CREATED);
+        long wall = System.nanoTime();
+        long threadCpu = Debug.threadCpuTimeNanos();
+        try {
+            listener.onViewCreated(view, savedInstanceState);
+        } finally {
+            record(LifeCycleEvents.ON_VIEW_CREATED, wall, threadCpu);
+        }
+    }
+
+    @Override
+    public void onStart(T view) {
+        monitor.onCallbackStart(hostClass, listenerClass, LifeCycleEvents.ON_START);
+        long wall = System.nanoTime();
+        long threadCpu = Debug.threadCpuTimeNanos();
+        try {
+            listener.onStart(view);
+        } finally {
+            record(LifeCycleEvents.ON_START, wall, threadCpu);
+        }
+    }
+
+    @Override
+    public void onResume(T view) {
+        monitor.onCallbackStart(hostClass, listenerClass, LifeCycleEvents.ON_RESUME);
+        long wall = System.nanoTime();
+        long threadCpu = Debug.threadCpuTimeNanos();
+        try {
+            listener.onResume(view);
+        } finally {
+            record(LifeCycleEvents.ON_RESUME, wall, threadCpu);
+        }
+    }
+
+    @Override
+    public boolean hasOptionsMenu(T view) {
+        monitor.onCallbackStart(hostClass, listenerClass, LifeCycleEvents.HAS_OPTIONS_MENU);
+        long wall = System.nanoTime();
+        long threadCpu = Debug.threadCpuTimeNanos();
+        try {
+            return listener.hasOptionsMenu(view);
+        } finally {
+            record(LifeCycleEvents.HAS_OPTIONS_MENU, wall, threadCpu);
+        }
+    }
+
+    @Override
+    public void onCreateOptionsMenu(T view, Menu menu, MenuInflater inflater) {
+        monitor.onCallbackStart(hostClass, listenerClass, LifeCycleEvents.ON_CREATE_OPTIONS_MENU);
+        long wall = System.nanoTime();
+        long threadCpu = Debug.threadCpuTimeNanos();
+        try {
+            listener.onCreateOptionsMenu(view, menu, inflater);
+        } finally {
+            record(LifeCycleEvents.ON_CREATE_OPTIONS_MENU, wall, threadCpu);
+        }
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(T view, MenuItem item) {
+        monitor.onCallbackStart(hostClass, listenerClass, LifeCycleEvents.ON_OPTIONS_ITEM_SELECTED);
+        long wall = System.nanoTime();
+        long threadCpu = Debug.threadCpuTimeNanos();
+        try {
+            return listener.onOptionsItemSelected(view, item);
+        } finally {
+            record(LifeCycleEvents.ON_OPTIONS_ITEM_SELECTED, wall, threadCpu);
+        }
+    }
+
+    @Override
+    public void onPause(T view) {
+        monitor.onCallbackStart(hostClass, listenerClass, LifeCycleEvents.ON_PAUSE);
+        long wall = System.nanoTime();
+        long threadCpu = Debug.threadCpuTimeNanos();
+        try {
+            listener.onPause(view);
+        } finally {
+            record(LifeCycleEvents.ON_PAUSE, wall, threadCpu);
+        }
+    }
+
+    @Override
+    public void onStop(T view) {
+        monitor.onCallbackStart(hostClass, listenerClass, LifeCycleEvents.ON_STOP);
+        long wall = System.nanoTime();
+        long threadCpu = Debug.threadCpuTimeNanos();
+        try {
+            listener.onStop(view);
+        } finally {
+            record(LifeCycleEvents.ON_STOP, wall, threadCpu);
+        }
+    }
+
+    @Override
+    public void onSaveInstanceState(T view, Bundle bundle) {
+        monitor.onCallbackStart(hostClass, listenerClass, LifeCycleEvents.ON_SAVE_INSTANCE_STATE);
+        long wall = System.nanoTime();
+        long threadCpu = Debug.threadCpuTimeNanos();
+        try {
+            listener.onSaveInstanceState(view, bundle);
+        } finally {
+            record(LifeCycleEvents.ON_SAVE_INSTANCE_STATE, wall, threadCpu);
+        }
+    }
+
+    @Override
+    public void onDestroyView(T view) {
+        monitor.onCallbackStart(hostClass, listenerClass, LifeCycleEvents.ON_DESTROY_VIEW);
+        long wall = System.nanoTime();
+        long threadCpu = Debug.threadCpuTimeNanos();
+        try {
+            listener.onDestroyView(view);
+        } finally {
+            record(LifeCycleEvents.ON_DESTROY_VIEW, wall, threadCpu);
+        }
+    }
+
+    @Override
+    public void onDestroy(T view, boolean changingConfigurations) {
+        monitor.onCallbackStart(hostClass, listenerClass, LifeCycleEvents.ON_DESTROY);
+        long wall = System.nanoTime();
+        long threadCpu = Debug.threadCpuTimeNanos();
+        try {
+            listener.onDestroy(view, changingConfigurations);
+        } finally {
+            record(LifeCycleEvents.ON_DESTROY, wall, threadCpu);
+        }
+    }
+
+    @Override
+    public void onActivityResult(T view, int requestCode, int resultCode, Intent data) {
+        monitor.onCallbackStart(hostClass, listenerClass, LifeCycleEvents.ON_ACTIVITY_RESULT);
+        long wall = System.nanoTime();
+        long threadCpu = Debug.threadCpuTimeNanos();
+        try {
+            listener.onActivityResult(view, requestCode, resultCode, data);
+        } finally {
+            record(LifeCycleEvents.ON_ACTIVITY_RESULT, wall, threadCpu);
+        }
+    }
+
+    private void record(int event, long wall, long threadCpu) {
+        monitor.onCallback(hostClass, listenerClass, event, System.nanoTime() - wall, Debug.threadCpuTimeNanos() - threadCpu);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuInflater;
+import android.view.MenuItem;
+
+/**
+ * Registered in place of an optional listener, it measures the startup callbacks and dispatches
+ * them using the deferred phase when the listener class is demoted by the {@link CircuitBreakerPolicy}.
+ */
+class OptionalLifeCycleAware<T> implements LifeCycleAware<T> {
+
+    private final LifeCycleAware<? super T> listener;
+
+    private final CircuitBreakerPolicy policy;
+
+    private final CircuitBreakerPolicy.State state;
+
+    private final LifeCycleHost<?> host;
+
+    OptionalLifeCycleAware(LifeCycleAware<? super T> listener, CircuitBreakerPolicy policy, CircuitBreakerPolicy.State state,
+                           LifeCycleHost<?> host) {
+        this.listener = listener;
+        this.policy = policy;
+        this.state = state;
+        this.host = host;
+    }
+
+    @Override
+    public void onCreate(final T view, final Bundle savedInstanceState, final Intent intent, final Bundle arguments) {
+        if (state.demotion != null) {
+            host.defer(new DeferredScheduler.DeferredEvent() {
+                @Override
+                void dispatch() {
+                    listener.onCreate(view, savedInstanceState, intent, arguments);
+                }
+            });
+        } else {
+            long start = System.nanoTime();
+            listener.onCreate(view, savedInstanceState, intent, arguments);
+            policy.record(state, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void onViewCreated(final T view, final Bundle savedInstanceState) {
+        if (state.demotion != null) {
+            host.defer(new DeferredScheduler.DeferredEvent() {
+                @Override
+                void dispatch() {
+                    listener.onViewCreated(view, savedInstanceState);
+                }
+            });
+        } else {
+            long start = System.nanoTime();
+            listener.onViewCreated(view, savedInstanceState);
+            policy.record(state, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void onStart(final T view) {
+        if (state.demotion != null) {
+            host.defer(new DeferredScheduler.DeferredEvent() {
+                @Override
+                void dispatch() {
+                    listener.onStart(view);
+                }
+            });
+        } else {
+            long start = System.nanoTime();
+            listener.onStart(view);
+            policy.record(state, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void onResume(final T view) {
+        if (state.demotion != null) {
+            host.defer(new DeferredScheduler.DeferredEvent() {
+                @Override
+                void dispatch() {
+                    listener.onResume(view);
+                }
+            });
+        } else {
+            long start = System.nanoTime();
+            listener.onResume(view);
+            policy.record(state, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean hasOptionsMenu(T view) {
+        if (state.demotion != null) {
+            host.flushDeferredEvents();
+        }
+        return listener.hasOptionsMenu(view);
+    }
+
+    @Override
+    public void onCreateOptionsMenu(T view, Menu menu, MenuInflater inflater) {
+        listener.onCreateOptionsMenu(view, menu, inflater);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(T view, MenuItem item) {
+        return listener.onOptionsItemSelected(view, item);
+    }
+
+    @Override
+    public void onPause(T view) {
+        listener.onPause(view);
+    }
+
+    @Override
+    public void onStop(T view) {
+        listener.onStop(view);
+    }
+
+    @Override
+    public void onSaveInstanceState(T view, Bundle bundle) {
+        listener.onSaveInstanceState(view, bundle);
+    }
+
+    @Override
+    public void onDestroyView(T view) {
+        listener.onDestroyView(view);
+    }
+
+    @Override
+    public void onDestroy(T view, boolean changingConfigurations) {
+        listener.onDestroy(view, changingConfigurations);
+    }
+
+    @Override
+    public void onActivityResult(T view, int requestCode, int resultCode, Intent data) {
+        listener.onActivityResult(view, requestCode, resultCode, data);
+    }
+}
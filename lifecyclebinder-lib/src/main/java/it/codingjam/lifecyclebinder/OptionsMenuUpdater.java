@@ -0,0 +1,119 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.Menu;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coalesces the menu updates requested by the listeners of a host, the updates requested before the
+ * next frame are applied once and only the listeners that requested them are invoked.
+ */
+class OptionsMenuUpdater<T> implements Runnable {
+
+    private final LifeCycleHost<T> host;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    private final List<OptionsMenuAware<? super T>> pending = new ArrayList<>();
+
+    private Menu menu;
+
+    private boolean scheduled;
+
+    private Object frameCallback;
+
+    OptionsMenuUpdater(LifeCycleHost<T> host) {
+        this.host = host;
+    }
+
+    /**
+     * Sets the menu created by onCreateOptionsMenu (null when it's destroyed), the pending updates
+     * are discarded because the items have just been created.
+     */
+    void setMenu(Menu menu) {
+        this.menu = menu;
+        pending.clear();
+    }
+
+    /**
+     * Requests an update of the items of the listener, it must be invoked on the main thread. Nothing is
+     * done when the menu has not been created yet.
+     */
+    void request(OptionsMenuAware<? super T> listener) {
+        if (menu == null) {
+            return;
+        }
+        for (OptionsMenuAware<? super T> pendingListener : pending) {
+            if (pendingListener == listener) {
+                return;
+            }
+        }
+        pending.add(listener);
+        if (!scheduled) {
+            scheduled = true;
+            scheduleNextFrame();
+        }
+    }
+
+    private void scheduleNextFrame() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            postFrameCallback();
+        } else {
+            handler.post(this);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void postFrameCallback() {
+        if (frameCallback == null) {
+            frameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    run();
+                }
+            };
+        }
+        Choreographer.getInstance().postFrameCallback((Choreographer.FrameCallback) frameCallback);
+    }
+
+    /**
+     * Applies the pending updates, the updates requested by the listeners while they are invoked
+     * are applied on the next frame.
+     */
+    @Override
+    public void run() {
+        scheduled = false;
+        if (menu == null || pending.isEmpty()) {
+            pending.clear();
+            return;
+        }
+        List<OptionsMenuAware<? super T>> listeners = new ArrayList<>(pending);
+        pending.clear();
+        host.flushDeferredEvents();
+        for (OptionsMenuAware<? super T> listener : listeners) {
+            listener.onUpdateOptionsMenu(host.view, menu);
+        }
+    }
+}
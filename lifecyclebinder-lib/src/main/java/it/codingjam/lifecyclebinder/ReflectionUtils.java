@@ -16,27 +16,36 @@
 
 package it.codingjam.lifecyclebinder;
 
-import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 class ReflectionUtils {
-    static <T> void invokeBindMethod(Class<ObjectBinder<T, T>> objectBinderClass, LifeCycleBinderFragment<T> collector, T viewParam) {
+    static ObjectBinder<?, ?> getInstance(Class<?> objectBinderClass) {
         try {
-            ObjectBinder<T, T> objectBinder = objectBinderClass.newInstance();
-            objectBinder.bind(collector, viewParam);
+            return (ObjectBinder<?, ?>) objectBinderClass.getField("INSTANCE").get(null);
+        } catch (NoSuchFieldException e) {
+            return newInstance(objectBinderClass);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Illegal access exception reading INSTANCE field of class " + objectBinderClass.getName(), e);
+        }
+    }
+
+    private static ObjectBinder<?, ?> newInstance(Class<?> objectBinderClass) {
+        try {
+            return (ObjectBinder<?, ?>) objectBinderClass.newInstance();
         } catch (IllegalAccessException e) {
             throw new RuntimeException("Illegal access exception instantiating class " + objectBinderClass.getName(), e);
         } catch (Exception e) {
-            throw new RuntimeException("Error invoking binding", e);
+            throw new RuntimeException("Error instantiating class " + objectBinderClass.getName(), e);
         }
     }
 
-    @NonNull
-    static <T> Class<ObjectBinder<T, T>> getObjectBinderClass(T obj) {
-        String className = obj.getClass().getName() + "$LifeCycleBinder";
+    @Nullable
+    static Class<?> findObjectBinderClass(Class<?> hostClass) {
+        String className = hostClass.getName() + "$LifeCycleBinder";
         try {
-            return (Class<ObjectBinder<T, T>>) Class.forName(className);
+            return Class.forName(className);
         } catch (ClassNotFoundException e) {
-            throw new RuntimeException("Error searching class " + className, e);
+            return null;
         }
     }
 }
@@ -0,0 +1,160 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.os.Process;
+import android.util.SparseArray;
+
+import java.util.Random;
+
+/**
+ * Keeps in memory the retained objects of the hosts destroyed because of a configuration change,
+ * the token used to find them is saved in the host state. The objects are kept until a new host takes
+ * them or until the Activity is destroyed without a configuration change (for example a Fragment in the
+ * back stack is created again only when it's popped).
+ */
+class RetainedObjectsStore {
+    private static final String RETAINED_OBJECTS_TOKEN = "_LIFE_CYCLE_BINDER_RETAINED_OBJECTS_";
+
+    /**
+     * Saved in the high bits of the tokens, a token restored in another process (after a process death)
+     * never matches the objects of this process.
+     */
+    private static final long PROCESS_NONCE = (long) (new Random().nextInt() ^ Process.myPid()) << 32;
+
+    private static final SparseArray<PendingObjects> pendingRetainedObjects = new SparseArray<>();
+
+    private static boolean releaseCallbacksRegistered;
+
+    private static int nextToken;
+
+    /**
+     * Returns the retained objects saved using the token contained in the state, a stale
+     * token (for example after a process restart) is removed from the state.
+     */
+    static SparseArray<Object> take(Bundle state) {
+        if (state != null && state.containsKey(RETAINED_OBJECTS_TOKEN)) {
+            long token = state.getLong(RETAINED_OBJECTS_TOKEN);
+            if ((token & 0xFFFFFFFF00000000L) == PROCESS_NONCE) {
+                int key = (int) token;
+                PendingObjects pending = pendingRetainedObjects.get(key);
+                if (pending != null) {
+                    pendingRetainedObjects.remove(key);
+                    return pending.retainedObjects;
+                }
+            }
+            state.remove(RETAINED_OBJECTS_TOKEN);
+        }
+        return new SparseArray<>();
+    }
+
+    static long getToken(Bundle state) {
+        return state != null ? state.getLong(RETAINED_OBJECTS_TOKEN) : 0;
+    }
+
+    /**
+     * Saves the token in the state, a new token is created when token is 0.
+     */
+    static long saveToken(Bundle state, long token) {
+        if (token == 0) {
+            token = PROCESS_NONCE | (++nextToken & 0xFFFFFFFFL);
+        }
+        state.putLong(RETAINED_OBJECTS_TOKEN, token);
+        return token;
+    }
+
+    /**
+     * Keeps the objects until a new host takes them or until the Activity (the Activity of the host or the
+     * Activity that contains it) is destroyed without a configuration change, it must be invoked on the main thread.
+     */
+    static void put(long token, SparseArray<Object> retainedObjects, Activity activity) {
+        pendingRetainedObjects.put((int) token, new PendingObjects(retainedObjects, activity.getClass(), activity.getTaskId()));
+        if (!releaseCallbacksRegistered) {
+            activity.getApplication().registerActivityLifecycleCallbacks(new ReleaseCallbacks());
+            releaseCallbacksRegistered = true;
+        }
+    }
+
+    /**
+     * Releases the objects of the previous instances of the Activity, the new instance is
+     * identified using the class and the task.
+     */
+    static void release(Activity activity) {
+        int taskId = -1;
+        for (int i = pendingRetainedObjects.size() - 1; i >= 0; i--) {
+            PendingObjects pending = pendingRetainedObjects.valueAt(i);
+            if (pending.activityClass == activity.getClass()) {
+                if (taskId == -1) {
+                    taskId = activity.getTaskId();
+                }
+                if (pending.taskId == taskId) {
+                    pendingRetainedObjects.removeAt(i);
+                }
+            }
+        }
+    }
+
+    private static class PendingObjects {
+        final SparseArray<Object> retainedObjects;
+
+        final Class<?> activityClass;
+
+        final int taskId;
+
+        PendingObjects(SparseArray<Object> retainedObjects, Class<?> activityClass, int taskId) {
+            this.retainedObjects = retainedObjects;
+            this.activityClass = activityClass;
+            this.taskId = taskId;
+        }
+    }
+
+    private static class ReleaseCallbacks implements Application.ActivityLifecycleCallbacks {
+        @Override
+        public void onActivityDestroyed(Activity activity) {
+            if (!activity.isChangingConfigurations()) {
+                release(activity);
+            }
+        }
+
+        @Override
+        public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+        }
+
+        @Override
+        public void onActivityStarted(Activity activity) {
+        }
+
+        @Override
+        public void onActivityResumed(Activity activity) {
+        }
+
+        @Override
+        public void onActivityPaused(Activity activity) {
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity) {
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+        }
+    }
+}
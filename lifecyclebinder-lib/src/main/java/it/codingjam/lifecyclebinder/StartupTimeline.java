@@ -0,0 +1,162 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.os.Process;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Timeline of the startup of a host, from the invocation of {@link LifeCycleBinder#bind(android.support.v4.app.FragmentActivity)}
+ * to the end of the first onResume. It contains the binder lookup, the bind method, the retained factories
+ * and the onCreate, onViewCreated, onStart and onResume callbacks of every listener. It's created only when
+ * a {@link Listener} is installed using {@link LifeCycleBinder#setStartupTimelineListener(Listener, double)}.
+ */
+public class StartupTimeline {
+
+    private static final int STARTUP_EVENTS = LifeCycleEvents.ON_CREATE | LifeCycleEvents.ON_VIEW_CREATED
+            | LifeCycleEvents.ON_START | LifeCycleEvents.ON_RESUME;
+
+    public interface Listener {
+        /**
+         * Invoked on the main thread at the end of the first onResume of the host.
+         */
+        void onStartupTimeline(StartupTimeline timeline);
+    }
+
+    private static class Span {
+        final String name;
+
+        final String category;
+
+        final long startNanos;
+
+        final long durationNanos;
+
+        final int threadId;
+
+        Span(String name, String category, long startNanos, long durationNanos, int threadId) {
+            this.name = name;
+            this.category = category;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+            this.threadId = threadId;
+        }
+    }
+
+    private final Class<?> hostClass;
+
+    private final Listener listener;
+
+    private final long startNanos = System.nanoTime();
+
+    private final List<Span> spans = new ArrayList<>();
+
+    private boolean finished;
+
+    final LifeCycleMonitor monitor = new LifeCycleMonitor() {
+        @Override
+        public void onBind(Class<?> hostClass, long wallNanos, long threadCpuNanos) {
+            add("ObjectBinder.bind", "bind", System.nanoTime() - wallNanos);
+        }
+
+        @Override
+        public void onCallbackStart(Class<?> hostClass, Class<?> listenerClass, int event) {
+        }
+
+        @Override
+        public void onCallback(Class<?> hostClass, Class<?> listenerClass, int event, long wallNanos, long threadCpuNanos) {
+            if ((event & STARTUP_EVENTS) != 0) {
+                add(listenerClass.getSimpleName() + "." + LifeCycleEvents.getMethodName(event), "callback", System.nanoTime() - wallNanos);
+            }
+        }
+    };
+
+    private StartupTimeline(Class<?> hostClass, Listener listener) {
+        this.hostClass = hostClass;
+        this.listener = listener;
+    }
+
+    /**
+     * Returns a new timeline, null if no listener is installed.
+     */
+    static StartupTimeline start(Object host) {
+        Listener listener = LifeCycleBinder.startupTimelineListener;
+        return listener != null ? new StartupTimeline(host.getClass(), listener) : null;
+    }
+
+    public Class<?> getHostClass() {
+        return hostClass;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * Adds a span that ends now, the spans added after the end of the first onResume are ignored.
+     */
+    synchronized void add(String name, String category, long startNanos) {
+        if (!finished) {
+            spans.add(new Span(name, category, startNanos, System.nanoTime() - startNanos, Process.myTid()));
+        }
+    }
+
+    void finish() {
+        synchronized (this) {
+            finished = true;
+        }
+        listener.onStartupTimeline(this);
+    }
+
+    /**
+     * Writes the timeline using the Chrome trace event format, the file can be opened
+     * in chrome://tracing or in the Perfetto UI.
+     */
+    public synchronized void writeJson(Writer writer) throws IOException {
+        int pid = Process.myPid();
+        writer.write("{\"traceEvents\":[");
+        for (int i = 0; i < spans.size(); i++) {
+            Span span = spans.get(i);
+            writer.write(i == 0 ? "\n" : ",\n");
+            writer.write(String.format(Locale.US,
+                    "{\"name\":\"%s\",\"cat\":\"%s\",\"ph\":\"X\",\"ts\":%.3f,\"dur\":%.3f,\"pid\":%d,\"tid\":%d,\"args\":{\"host\":\"%s\"}}",
+                    escape(span.name), span.category, (span.startNanos - startNanos) / 1000.0, span.durationNanos / 1000.0,
+                    pid, span.threadId, escape(hostClass.getName())));
+        }
+        writer.write("\n],\"displayTimeUnit\":\"ms\"}\n");
+    }
+
+    public String toJson() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeJson(writer);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return writer.toString();
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Problems found by {@link LifeCycleWatchdog} in the callbacks of the listeners of a host class,
+ * only the last entries are kept.
+ */
+public class WatchdogReport {
+
+    static final int MAX_ENTRIES = 64;
+
+    public enum Type {
+        SLOW_CALLBACK,
+        STRICT_MODE_VIOLATION
+    }
+
+    public static class Entry {
+        public final Type type;
+
+        public final String listenerClassName;
+
+        /**
+         * Name of the {@link LifeCycleAware} method.
+         */
+        public final String method;
+
+        /**
+         * Wall time of the callback, 0 for StrictMode violations.
+         */
+        public final long durationNanos;
+
+        /**
+         * Main thread stack sampled while the slow callback was running or stack of the
+         * StrictMode violation, it can be null.
+         */
+        public final StackTraceElement[] stackTrace;
+
+        Entry(Type type, String listenerClassName, String method, long durationNanos, StackTraceElement[] stackTrace) {
+            this.type = type;
+            this.listenerClassName = listenerClassName;
+            this.method = method;
+            this.durationNanos = durationNanos;
+            this.stackTrace = stackTrace;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder b = new StringBuilder();
+            b.append(type).append(' ').append(listenerClassName).append('.').append(method);
+            if (durationNanos > 0) {
+                b.append(' ').append(durationNanos / 1000 / 1000f).append(" ms");
+            }
+            if (stackTrace != null) {
+                for (StackTraceElement element : stackTrace) {
+                    b.append("\n    at ").append(element);
+                }
+            }
+            return b.toString();
+        }
+    }
+
+    public final Class<?> hostClass;
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    WatchdogReport(Class<?> hostClass) {
+        this.hostClass = hostClass;
+    }
+
+    synchronized void add(Entry entry) {
+        if (entries.size() == MAX_ENTRIES) {
+            entries.remove(0);
+        }
+        entries.add(entry);
+    }
+
+    public synchronized List<Entry> getEntries() {
+        return new ArrayList<>(entries);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder b = new StringBuilder(hostClass.getName());
+        for (Entry entry : entries) {
+            b.append("\n  ").append(entry.toString().replace("\n", "\n  "));
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package it.codingjam.lifecyclebinder;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class CreateBarrierTest {
+
+    @Test
+    public void testTasksNotStartedAreExecutedByTheWaitingThread() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        CreateBarrier busy = new CreateBarrier(8);
+        for (int i = 0; i < 8; i++) {
+            busy.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+
+        final AtomicReference<Thread> thread = new AtomicReference<>();
+        CreateBarrier barrier = new CreateBarrier(1);
+        barrier.execute(new Runnable() {
+            @Override
+            public void run() {
+                thread.set(Thread.currentThread());
+            }
+        });
+        barrier.await();
+        release.countDown();
+        busy.await();
+
+        assertSame(Thread.currentThread(), thread.get());
+    }
+
+    @Test
+    public void testEveryTaskIsExecutedOnce() {
+        final AtomicInteger executions = new AtomicInteger();
+        CreateBarrier barrier = new CreateBarrier(20);
+        for (int i = 0; i < 20; i++) {
+            barrier.execute(new Runnable() {
+                @Override
+                public void run() {
+                    executions.incrementAndGet();
+                }
+            });
+        }
+
+        barrier.await();
+
+        assertEquals(20, executions.get());
+    }
+
+    @Test
+    public void testErrorIsRethrown() {
+        final RuntimeException error = new RuntimeException();
+        CreateBarrier barrier = new CreateBarrier(1);
+        barrier.execute(new Runnable() {
+            @Override
+            public void run() {
+                throw error;
+            }
+        });
+
+        try {
+            barrier.await();
+            fail();
+        } catch (RuntimeException e) {
+            assertSame(error, e.getCause());
+        }
+    }
+}
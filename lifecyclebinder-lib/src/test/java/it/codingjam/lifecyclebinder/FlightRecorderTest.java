@@ -0,0 +1,168 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FlightRecorderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRecordsAreReadInOrder() throws IOException {
+        File file = folder.newFile("recorder");
+        FlightRecorder recorder = new FlightRecorder(file, 16);
+
+        recorder.onBind(String.class, 3000000, 2000000);
+        recorder.onCallbackStart(String.class, Integer.class, LifeCycleEvents.ON_START);
+        recorder.onCallback(String.class, Integer.class, LifeCycleEvents.ON_START, 5000000, 4000000);
+
+        List<FlightRecorderReader.Record> records = FlightRecorderReader.read(file);
+        assertEquals(3, records.size());
+
+        FlightRecorderReader.Record bind = records.get(0);
+        assertEquals("bind", bind.type);
+        assertEquals(String.class.getName(), bind.hostClass);
+        assertNull(bind.listenerClass);
+        assertNull(bind.method);
+        assertEquals(3000, bind.wallMicros);
+        assertEquals(2000, bind.threadCpuMicros);
+
+        FlightRecorderReader.Record start = records.get(1);
+        assertEquals("start", start.type);
+        assertEquals(Integer.class.getName(), start.listenerClass);
+        assertEquals("onStart", start.method);
+        assertEquals(-1, start.wallMicros);
+
+        FlightRecorderReader.Record end = records.get(2);
+        assertEquals("end", end.type);
+        assertEquals(String.class.getName(), end.hostClass);
+        assertEquals(Integer.class.getName(), end.listenerClass);
+        assertEquals("onStart", end.method);
+        assertEquals(5000, end.wallMicros);
+        assertEquals(4000, end.threadCpuMicros);
+        assertTrue(start.timeNanos <= end.timeNanos);
+    }
+
+    @Test
+    public void testOnlyTheLastRecordsAreKept() throws IOException {
+        File file = folder.newFile("recorder");
+        FlightRecorder recorder = new FlightRecorder(file, 4);
+
+        for (int i = 1; i <= 10; i++) {
+            recorder.onCallback(String.class, Integer.class, LifeCycleEvents.ON_RESUME, i * 1000, 0);
+        }
+
+        List<FlightRecorderReader.Record> records = FlightRecorderReader.read(file);
+        assertEquals(4, records.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(7 + i, records.get(i).wallMicros);
+        }
+    }
+
+    @Test
+    public void testPartiallyWrittenRecordIsSkipped() throws IOException {
+        File file = folder.newFile("recorder");
+        FlightRecorder recorder = new FlightRecorder(file, 4);
+
+        for (int i = 1; i <= 6; i++) {
+            recorder.onCallback(String.class, Integer.class, LifeCycleEvents.ON_PAUSE, i * 1000, 0);
+        }
+        // the last record (second slot) still contains the sequence number of the record it overwrites
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.seek(FlightRecorderReader.HEADER_SIZE + FlightRecorderReader.RECORD_SIZE + 8);
+            randomAccessFile.writeInt(2);
+        } finally {
+            randomAccessFile.close();
+        }
+
+        List<FlightRecorderReader.Record> records = FlightRecorderReader.read(file);
+        assertEquals(3, records.size());
+        assertEquals(3, records.get(0).wallMicros);
+        assertEquals(4, records.get(1).wallMicros);
+        assertEquals(5, records.get(2).wallMicros);
+    }
+
+    @Test
+    public void testRecordInterruptedBeforeUpdatingTheCountIsSkipped() throws IOException {
+        File file = folder.newFile("recorder");
+        FlightRecorder recorder = new FlightRecorder(file, 4);
+
+        for (int i = 1; i <= 6; i++) {
+            recorder.onCallback(String.class, Integer.class, LifeCycleEvents.ON_PAUSE, i * 1000, 0);
+        }
+        // the process is killed writing the seventh record over the oldest one (third slot),
+        // the sequence number is cleared and the count is not updated
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            int offset = FlightRecorderReader.HEADER_SIZE + 2 * FlightRecorderReader.RECORD_SIZE;
+            randomAccessFile.seek(offset + 8);
+            randomAccessFile.writeInt(0);
+            randomAccessFile.seek(offset + 20);
+            randomAccessFile.writeInt(7);
+        } finally {
+            randomAccessFile.close();
+        }
+
+        List<FlightRecorderReader.Record> records = FlightRecorderReader.read(file);
+        assertEquals(3, records.size());
+        assertEquals(4, records.get(0).wallMicros);
+        assertEquals(5, records.get(1).wallMicros);
+        assertEquals(6, records.get(2).wallMicros);
+    }
+
+    @Test
+    public void testFileOfThePreviousProcessIsKept() throws IOException {
+        File file = new File(folder.getRoot(), "recorder");
+        new FlightRecorder(file, 4).onBind(String.class, 1000, 0);
+
+        new FlightRecorder(file, 4).onBind(Integer.class, 2000, 0);
+
+        List<FlightRecorderReader.Record> previous = FlightRecorderReader.read(FlightRecorder.getPreviousFile(file));
+        assertEquals(1, previous.size());
+        assertEquals(String.class.getName(), previous.get(0).hostClass);
+        List<FlightRecorderReader.Record> current = FlightRecorderReader.read(file);
+        assertEquals(1, current.size());
+        assertEquals(Integer.class.getName(), current.get(0).hostClass);
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidFile() throws IOException {
+        File file = folder.newFile("invalid");
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.write(new byte[FlightRecorderReader.HEADER_SIZE]);
+        } finally {
+            randomAccessFile.close();
+        }
+
+        FlightRecorderReader.read(file);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+    @Test
+    public void testSmallValuesHaveTheirOwnBucket() {
+        for (int i = 0; i < 16; i++) {
+            assertEquals(i, LatencyHistogram.indexOf(i));
+            assertEquals(i, LatencyHistogram.lowerBound(i));
+        }
+        assertEquals(0, LatencyHistogram.indexOf(-5));
+    }
+
+    @Test
+    public void testValuesAreInsideTheirBucket() {
+        for (long value = 1; value < (1L << 40); value = value * 3 / 2 + 1) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.lowerBound(index) <= value);
+            assertTrue(value < LatencyHistogram.lowerBound(index + 1));
+            assertTrue(LatencyHistogram.lowerBound(index + 1) - LatencyHistogram.lowerBound(index) <= Math.max(1, value / 8));
+        }
+    }
+
+    @Test
+    public void testHugeValuesAreInTheLastBucket() {
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.indexOf(1L << 41));
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.indexOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 100; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(1000000);
+
+        assertEquals(101, histogram.getCount());
+        assertEquals(1023, histogram.getPercentile(50));
+        assertEquals(1023, histogram.getPercentile(99));
+        long max = histogram.getPercentile(100);
+        assertTrue(max >= 1000000);
+        assertTrue(max <= 1000000 * 9 / 8);
+    }
+
+    @Test
+    public void testPercentileOfTheLastBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(LatencyHistogram.lowerBound(LatencyHistogram.BUCKETS - 1), histogram.getPercentile(50));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import android.content.Intent;
+import android.os.Bundle;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LifeCycleHostTest {
+
+    private final List<String> events = new ArrayList<>();
+
+    private final LifeCycleHost<Object> host = new LifeCycleHost<>(new Object(), null);
+
+    @Test
+    public void testListenerRemovedDuringDispatch() {
+        final RecordingListener second = new RecordingListener("second");
+        RecordingListener first = new RecordingListener("first") {
+            @Override
+            public void onStart(Object view) {
+                super.onStart(view);
+                assertTrue(host.removeLifeCycleAware(this));
+                assertTrue(host.removeLifeCycleAware(second));
+            }
+        };
+        RecordingListener third = new RecordingListener("third");
+        host.addLifeCycleAware(first);
+        host.addLifeCycleAware(second);
+        host.addLifeCycleAware(third);
+
+        host.dispatchStart();
+        events.clear();
+        host.dispatchStop();
+
+        assertEquals(asList("third.onStop"), events);
+        assertFalse(host.removeLifeCycleAware(second));
+    }
+
+    @Test
+    public void testListenerAddedDuringDispatch() {
+        final RecordingListener late = new RecordingListener("late");
+        host.addLifeCycleAware(new RecordingListener("first") {
+            @Override
+            public void onStart(Object view) {
+                super.onStart(view);
+                host.addLifeCycleAware(late);
+            }
+        });
+
+        host.dispatchStart();
+        host.dispatchStop();
+
+        assertEquals(asList("first.onStart", "late.onStart", "first.onStop", "late.onStop"), events);
+    }
+
+    @Test
+    public void testMutedListener() {
+        RecordingListener listener = new RecordingListener("listener");
+        host.addLifeCycleAware(listener);
+
+        host.setLifeCycleAwareMuted(listener, true);
+        host.dispatchStart();
+        host.setLifeCycleAwareMuted(listener, false);
+        host.dispatchStop();
+
+        assertEquals(asList("listener.onStop"), events);
+    }
+
+    @Test
+    public void testOrderIsKeptAfterRemovingAndMuting() {
+        RecordingListener first = new RecordingListener("first");
+        RecordingListener second = new RecordingListener("second");
+        RecordingListener third = new RecordingListener("third");
+        RecordingListener fourth = new RecordingListener("fourth");
+        host.addLifeCycleAware(first);
+        host.addLifeCycleAware(second);
+        host.addLifeCycleAware(third);
+        host.addLifeCycleAware(fourth);
+
+        host.removeLifeCycleAware(second);
+        host.setLifeCycleAwareMuted(third, true);
+        host.dispatchStart();
+        host.setLifeCycleAwareMuted(third, false);
+        host.dispatchStop();
+
+        assertEquals(asList("first.onStart", "fourth.onStart", "first.onStop", "third.onStop", "fourth.onStop"), events);
+    }
+
+    @Test
+    public void testLazySubclassIsCreatedOnTheDeclaredEvents() {
+        host.addLazyLifeCycleAware(new Callable<RecordingListener>() {
+            @Override
+            public RecordingListener call() throws Exception {
+                events.add("factory");
+                return new RecordingListener("lazy") {
+                    @Override
+                    public void onCreate(Object view, Bundle savedInstanceState, Intent intent, Bundle arguments) {
+                        events.add("lazy.onCreate");
+                    }
+                };
+            }
+        }, RecordingListener.class, LifeCycleEvents.ON_START | LifeCycleEvents.ON_STOP);
+
+        host.dispatchCreate(null, null, null);
+        assertTrue(events.isEmpty());
+        host.dispatchStart();
+        host.dispatchStop();
+
+        assertEquals(asList("factory", "lazy.onCreate", "lazy.onStart", "lazy.onStop"), events);
+    }
+
+    private class RecordingListener extends DefaultLifeCycleAware<Object> {
+        private final String name;
+
+        RecordingListener(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void onStart(Object view) {
+            events.add(name + ".onStart");
+        }
+
+        @Override
+        public void onStop(Object view) {
+            events.add(name + ".onStop");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class MonitoredLifeCycleAwareTest {
+
+    private final RecordingMonitor monitor = new RecordingMonitor();
+
+    @Test
+    public void testCallbackIsRecorded() {
+        MonitoredLifeCycleAware<Object> listener = new MonitoredLifeCycleAware<>(new DefaultLifeCycleAware<Object>(),
+                monitor, Object.class, DefaultLifeCycleAware.class);
+
+        listener.onStart(this);
+
+        assertEquals(1, monitor.starts.size());
+        assertEquals(1, monitor.callbacks.size());
+        assertEquals(LifeCycleEvents.ON_START, (int) monitor.callbacks.get(0));
+    }
+
+    @Test
+    public void testCallbackThatThrowsIsRecorded() {
+        final RuntimeException error = new RuntimeException();
+        MonitoredLifeCycleAware<Object> listener = new MonitoredLifeCycleAware<>(new DefaultLifeCycleAware<Object>() {
+            @Override
+            public void onResume(Object view) {
+                throw error;
+            }
+
+            @Override
+            public boolean hasOptionsMenu(Object view) {
+                throw error;
+            }
+        }, monitor, Object.class, DefaultLifeCycleAware.class);
+
+        try {
+            listener.onResume(this);
+            fail();
+        } catch (RuntimeException e) {
+            assertSame(error, e);
+        }
+        try {
+            listener.hasOptionsMenu(this);
+            fail();
+        } catch (RuntimeException e) {
+            assertSame(error, e);
+        }
+
+        assertEquals(monitor.starts, monitor.callbacks);
+        assertEquals(LifeCycleEvents.ON_RESUME, (int) monitor.callbacks.get(0));
+        assertEquals(LifeCycleEvents.HAS_OPTIONS_MENU, (int) monitor.callbacks.get(1));
+    }
+
+    private static class RecordingMonitor implements LifeCycleMonitor {
+        final List<Integer> starts = new ArrayList<>();
+
+        final List<Integer> callbacks = new ArrayList<>();
+
+        @Override
+        public void onBind(Class<?> hostClass, long wallNanos, long threadCpuNanos) {
+        }
+
+        @Override
+        public void onCallbackStart(Class<?> hostClass, Class<?> listenerClass, int event) {
+            starts.add(event);
+        }
+
+        @Override
+        public void onCallback(Class<?> hostClass, Class<?> listenerClass, int event, long wallNanos, long threadCpuNanos) {
+            callbacks.add(event);
+        }
+    }
+}
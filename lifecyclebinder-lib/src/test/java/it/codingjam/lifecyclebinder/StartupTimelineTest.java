@@ -0,0 +1,105 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class StartupTimelineTest {
+
+    private static final String EVENT_PATTERN = "\\{\"name\":\"%s\",\"cat\":\"%s\",\"ph\":\"X\",\"ts\":\\d+\\.\\d{3},\"dur\":\\d+\\.\\d{3},"
+            + "\"pid\":\\d+,\"tid\":\\d+,\"args\":\\{\"host\":\"java.lang.String\"\\}\\}";
+
+    private StartupTimeline finishedTimeline;
+
+    @Before
+    public void setUp() {
+        LifeCycleBinder.startupTimelineListener = new StartupTimeline.Listener() {
+            @Override
+            public void onStartupTimeline(StartupTimeline timeline) {
+                finishedTimeline = timeline;
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        LifeCycleBinder.startupTimelineListener = null;
+    }
+
+    @Test
+    public void testTimelineIsNotCreatedWithoutListener() {
+        LifeCycleBinder.startupTimelineListener = null;
+
+        assertNull(StartupTimeline.start("host"));
+    }
+
+    @Test
+    public void testEmptyTimeline() {
+        StartupTimeline timeline = StartupTimeline.start("host");
+
+        assertEquals("{\"traceEvents\":[\n],\"displayTimeUnit\":\"ms\"}\n", timeline.toJson());
+    }
+
+    @Test
+    public void testJsonContainsCompleteEvents() {
+        StartupTimeline timeline = StartupTimeline.start("host");
+        timeline.add("LifeCycleBinder.findBinder", "lookup", timeline.getStartNanos());
+        timeline.monitor.onBind(String.class, 1000, 1000);
+        timeline.monitor.onCallback(String.class, Integer.class, LifeCycleEvents.ON_START, 1000, 1000);
+        timeline.monitor.onCallback(String.class, Integer.class, LifeCycleEvents.ON_PAUSE, 1000, 1000);
+
+        String[] lines = timeline.toJson().split("\n");
+
+        assertEquals(5, lines.length);
+        assertEquals("{\"traceEvents\":[", lines[0]);
+        assertMatches(String.format(EVENT_PATTERN, "LifeCycleBinder.findBinder", "lookup") + ",", lines[1]);
+        assertMatches(String.format(EVENT_PATTERN, "ObjectBinder.bind", "bind") + ",", lines[2]);
+        assertMatches(String.format(EVENT_PATTERN, "Integer.onStart", "callback"), lines[3]);
+        assertEquals("],\"displayTimeUnit\":\"ms\"}", lines[4]);
+    }
+
+    @Test
+    public void testNamesAreEscaped() {
+        StartupTimeline timeline = StartupTimeline.start("host");
+        timeline.add("a\"b\\c", "bind", timeline.getStartNanos());
+
+        assertTrue(timeline.toJson().contains("\"name\":\"a\\\"b\\\\c\""));
+    }
+
+    @Test
+    public void testSpansAfterFinishAreIgnored() {
+        StartupTimeline timeline = StartupTimeline.start("host");
+        timeline.add("first", "bind", timeline.getStartNanos());
+
+        timeline.finish();
+        timeline.add("second", "bind", timeline.getStartNanos());
+
+        assertSame(timeline, finishedTimeline);
+        assertEquals(3, timeline.toJson().split("\n").length);
+    }
+
+    private static void assertMatches(String pattern, String s) {
+        assertTrue(s, s.matches(pattern));
+    }
+}
@@ -29,7 +29,13 @@ import com.squareup.javapoet.WildcardTypeName;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 import javax.annotation.processing.Messager;
@@ -37,6 +43,7 @@ import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
@@ -50,20 +57,34 @@ import it.codingjam.lifecyclebinder.utils.TypeUtils;
 import static javax.lang.model.element.Modifier.FINAL;
 import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
 
 public class BinderGenerator {
     public static final String LIFE_CYCLE_BINDER_SUFFIX = "$LifeCycleBinder";
+    static final ClassName BINDER_SUPPORT = ClassName.get("it.codingjam.lifecyclebinder", "BinderSupport");
+    static final ClassName TRACE_COMPAT = ClassName.get("android.support.v4.os", "TraceCompat");
     private ProcessingEnvironment processingEnv;
     private final Types typeUtils;
     private final Messager messager;
+    private final EventsCalculator eventsCalculator;
+    private final DispatcherGenerator dispatcherGenerator;
+    private final boolean flatten;
+    private final boolean trace;
+    private final Map<Integer, String> retainedKeys = new HashMap<>();
 
-    public BinderGenerator(ProcessingEnvironment processingEnv, Types typeUtils, Messager messager) {
+    public BinderGenerator(ProcessingEnvironment processingEnv, Types typeUtils, Messager messager, boolean generateDispatchers, boolean flatten,
+                           boolean trace) {
         this.processingEnv = processingEnv;
         this.typeUtils = typeUtils;
         this.messager = messager;
+        this.eventsCalculator = new EventsCalculator(typeUtils, processingEnv.getElementUtils());
+        this.dispatcherGenerator = generateDispatchers ? new DispatcherGenerator(processingEnv.getElementUtils(), trace) : null;
+        this.flatten = flatten;
+        this.trace = trace;
     }
 
     public void generateBinder(LifeCycleAwareInfo lifeCycleAwareInfo) {
+        checkRetainedKeys(lifeCycleAwareInfo);
         TypeElement hostElement = lifeCycleAwareInfo.element;
         PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(hostElement);
         final String simpleClassName = hostElement.getSimpleName().toString() + LIFE_CYCLE_BINDER_SUFFIX;
@@ -77,18 +98,40 @@ public class BinderGenerator {
             TypeName objectGenericType = TypeName.get(hostElement.asType());
             TypeName viewGenericType = getObjectBinderGenericTypeName(hostElement);
 
+            List<TypeVariableName> typeVariables = new ArrayList<>();
+            for (TypeName argument : TypeUtils.getTypeArguments(hostElement.asType())) {
+                typeVariables.add((TypeVariableName) argument);
+            }
+
             TypeSpec.Builder builder = TypeSpec.classBuilder(simpleClassName)
                     .addModifiers(PUBLIC)
                     .superclass(ParameterizedTypeName.get(ClassName.get(ObjectBinder.class), objectGenericType, viewGenericType))
-                    .addMethod(generateBindMethod(lifeCycleAwareInfo, objectGenericType));
-
-            List<TypeName> typeArguments = TypeUtils.getTypeArguments(hostElement.asType());
-            for (TypeName argument : typeArguments) {
-                builder.addTypeVariable((TypeVariableName) argument);
-            }
+                    .addTypeVariables(typeVariables)
+                    .addField(generateInstanceField(ClassName.get(packageElement.getQualifiedName().toString(), simpleClassName), typeVariables));
 
-            for (NestedLifeCycleAwareInfo info : lifeCycleAwareInfo.nestedElements) {
-                builder.addField(generateNestedBinderField(info));
+            if (dispatcherGenerator != null) {
+                for (RetainedObjectInfo entry : lifeCycleAwareInfo.retainedObjects) {
+                    if (entry.async) {
+                        messager.printMessage(Diagnostic.Kind.WARNING, String.format(
+                                "Retained object %s is created synchronously, async is not supported by dispatchers", entry.name), entry.field);
+                    }
+                }
+                TypeName dispatcherType = generateDispatcher(lifeCycleAwareInfo, packageElement, objectGenericType, viewGenericType, typeVariables);
+                CodeBlock body = CodeBlock.builder().addStatement("collector.addLifeCycleAware(new $T(collector, view))", dispatcherType).build();
+                builder.addMethod(generateBindMethod(lifeCycleAwareInfo, objectGenericType, body));
+            } else if (flatten) {
+                CodeBlock.Builder body = CodeBlock.builder();
+                List<FieldSpec> delegateFields = new ArrayList<>();
+                Set<TypeElement> visiting = new HashSet<>();
+                visiting.add(hostElement);
+                appendFlatBindStatements(body, delegateFields, lifeCycleAwareInfo, CodeBlock.of("view"), "", packageElement, visiting);
+                builder.addFields(delegateFields);
+                builder.addMethod(generateBindMethod(lifeCycleAwareInfo, objectGenericType, body.build()));
+            } else {
+                builder.addMethod(generateBindMethod(lifeCycleAwareInfo, objectGenericType, generateBindMethodBody(lifeCycleAwareInfo)));
+                for (NestedLifeCycleAwareInfo info : lifeCycleAwareInfo.nestedElements) {
+                    builder.addField(generateNestedBinderField(info));
+                }
             }
 
             writeFile(packageElement, sourceFile, builder.build());
@@ -97,6 +140,29 @@ public class BinderGenerator {
         }
     }
 
+    private TypeName generateDispatcher(LifeCycleAwareInfo lifeCycleAwareInfo, PackageElement packageElement, TypeName objectGenericType,
+                                        TypeName viewGenericType, List<TypeVariableName> typeVariables) throws IOException {
+        String simpleClassName = lifeCycleAwareInfo.element.getSimpleName().toString() + DispatcherGenerator.LIFE_CYCLE_DISPATCHER_SUFFIX;
+        String qualifiedClassName = packageElement.getQualifiedName() + "." + simpleClassName;
+        message(Diagnostic.Kind.NOTE, "writing class " + qualifiedClassName);
+        JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(
+                qualifiedClassName, lifeCycleAwareInfo.getLifeCycleAwareElementsArray());
+        CodeBlock.Builder registrations = CodeBlock.builder();
+        appendScheduledStatements(registrations, lifeCycleAwareInfo, CodeBlock.of("target"));
+        appendLazyStatements(registrations, lifeCycleAwareInfo, CodeBlock.of("target"));
+        appendRequestCodeStatements(registrations, lifeCycleAwareInfo, CodeBlock.of("target"));
+        appendOptionsMenuStatements(registrations, lifeCycleAwareInfo);
+        writeFile(packageElement, sourceFile, dispatcherGenerator.generateDispatcher(
+                lifeCycleAwareInfo, simpleClassName, objectGenericType, viewGenericType, typeVariables, registrations.build()));
+
+        ClassName className = ClassName.get(packageElement.getQualifiedName().toString(), simpleClassName);
+        if (typeVariables.isEmpty()) {
+            return className;
+        } else {
+            return ParameterizedTypeName.get(className, typeVariables.toArray(new TypeName[typeVariables.size()]));
+        }
+    }
+
     private void writeFile(PackageElement packageElement, JavaFileObject sourceFile, TypeSpec typeSpec) throws IOException {
         final Writer writer = sourceFile.openWriter();
         JavaFile.builder(packageElement.getQualifiedName().toString(), typeSpec).skipJavaLangImports(true)
@@ -106,15 +172,38 @@ public class BinderGenerator {
     }
 
     private FieldSpec generateNestedBinderField(NestedLifeCycleAwareInfo info) {
+        return generateNestedBinderField(info, info.getFieldName());
+    }
+
+    private FieldSpec generateNestedBinderField(NestedLifeCycleAwareInfo info, String fieldName) {
         TypeName className = info.getBinderClassName();
-        return FieldSpec.builder(
-                className,
-                info.getFieldName(),
-                PRIVATE
-        ).initializer("new $T()", info.getBinderClassName()).build();
+        FieldSpec.Builder builder;
+        if (className instanceof ParameterizedTypeName && !TypeUtils.containsTypeVariable(className)) {
+            builder = FieldSpec.builder(className, fieldName, PRIVATE, STATIC, FINAL)
+                    .initializer("new $T()", className);
+        } else {
+            ClassName rawType = TypeUtils.getRawType(className);
+            builder = FieldSpec.builder(rawType, fieldName, PRIVATE, STATIC, FINAL)
+                    .initializer("$T.INSTANCE", rawType);
+        }
+        return builder.build();
+    }
+
+    private FieldSpec generateInstanceField(ClassName className, List<TypeVariableName> typeVariables) {
+        if (typeVariables.isEmpty()) {
+            return FieldSpec.builder(className, "INSTANCE", PUBLIC, STATIC, FINAL)
+                    .initializer("new $T()", className)
+                    .build();
+        } else {
+            TypeName[] wildcards = new TypeName[typeVariables.size()];
+            Arrays.fill(wildcards, WildcardTypeName.subtypeOf(Object.class));
+            return FieldSpec.builder(ParameterizedTypeName.get(className, wildcards), "INSTANCE", PUBLIC, STATIC, FINAL)
+                    .initializer("new $T<>()", className)
+                    .build();
+        }
     }
 
-    private MethodSpec generateBindMethod(LifeCycleAwareInfo lifeCycleAwareInfo, TypeName objectGenericType) {
+    private MethodSpec generateBindMethod(LifeCycleAwareInfo lifeCycleAwareInfo, TypeName objectGenericType, CodeBlock body) {
         ParameterizedTypeName collectorType = ParameterizedTypeName.get(
                 ClassName.get(LifeCycleAwareCollector.class),
                 WildcardTypeName.subtypeOf(getObjectBinderGenericTypeName(lifeCycleAwareInfo.element)));
@@ -123,7 +212,7 @@ public class BinderGenerator {
                 .returns(void.class)
                 .addParameter(collectorType, "collector")
                 .addParameter(objectGenericType, "view", FINAL)
-                .addCode(generateBindMethodBody(lifeCycleAwareInfo))
+                .addCode(body)
                 .build();
     }
 
@@ -168,55 +257,370 @@ public class BinderGenerator {
     private CodeBlock generateBindMethodBody(LifeCycleAwareInfo lifeCycleAwareInfo) {
         CodeBlock.Builder builder = CodeBlock.builder();
         for (Element element : lifeCycleAwareInfo.lifeCycleAwareElements) {
-            builder.addStatement("collector.addLifeCycleAware(view.$L)", element);
+            int events = eventsCalculator.calculateEvents(element.asType());
+            beginTraceSection(builder, lifeCycleAwareInfo.element, element.getSimpleName());
+            if (events == LifeCycleEvents.ALL) {
+                builder.addStatement("collector.addLifeCycleAware(view.$L)", element);
+            } else {
+                builder.addStatement("collector.addLifeCycleAware(view.$L, $T.class, $L)",
+                        element, TypeUtils.getRawType(element.asType()), eventsCalculator.toCodeBlock(events));
+            }
+            endTraceSection(builder);
         }
         for (RetainedObjectInfo entry : lifeCycleAwareInfo.retainedObjects) {
-            TypeName typeName = ParameterizedTypeName.get(entry.field.asType());
-            if (!(typeName instanceof ParameterizedTypeName)) {
-                //TODO error
+            if (entry.lazy) {
+                continue;
             }
-            ParameterizedTypeName parameterizedTypeName = (ParameterizedTypeName) typeName;
-            if (parameterizedTypeName.typeArguments.size() != 1) {
-                //TODO error
-            }
-            Object argument;
-            if (parameterizedTypeName.rawType.equals(TypeName.get(Callable.class))) {
-                argument = "view." + entry.field;
-            } else {
-                TypeName returnTypeName = parameterizedTypeName.typeArguments.get(0);
-                argument = TypeSpec.anonymousClassBuilder("")
-                        .addSuperinterface(ParameterizedTypeName.get(ClassName.get(Callable.class), returnTypeName))
-                        .addMethod(MethodSpec.methodBuilder("call")
-                                .addAnnotation(Override.class)
-                                .addModifiers(PUBLIC)
-                                .addException(Exception.class)
-                                .returns(returnTypeName)
-                                .addStatement("return view.$L.get()", entry.field)
-                                .build())
-                        .build();
+            Object argument = generateFactoryArgument(entry.field, "view");
+            beginTraceSection(builder, lifeCycleAwareInfo.element, entry.field.getSimpleName());
+            if (entry.async) {
+                builder.addStatement("$L", generateAddAsyncRetainedFactory(entry, argument, CodeBlock.of("view")));
+                endTraceSection(builder);
+                continue;
             }
+            CodeBlock addRetainedFactory = generateAddRetainedFactory(entry, argument);
             if (entry.fieldToPopulate != null && entry.fieldToPopulate.length() > 0) {
-                builder.addStatement("view.$L = collector.addRetainedFactory($S, $L)", entry.fieldToPopulate, entry.name, argument);
+                builder.addStatement("view.$L = $L", entry.fieldToPopulate, addRetainedFactory);
                 if (lifeCycleAwareInfo.isNested(entry)) {
                     builder.addStatement("$L.bind(collector, view.$L)", entry.name, entry.fieldToPopulate);
                 }
             } else {
                 if (lifeCycleAwareInfo.isNested(entry)) {
-                    builder.addStatement("$L.bind(collector, collector.addRetainedFactory($S, $L))", entry.name, entry.name, argument);
+                    builder.addStatement("$L.bind(collector, $L)", entry.name, addRetainedFactory);
                 } else {
-                    builder.addStatement("collector.addRetainedFactory($S, $L)", entry.name, argument);
+                    builder.addStatement("$L", addRetainedFactory);
                 }
             }
+            endTraceSection(builder);
         }
+        appendScheduledStatements(builder, lifeCycleAwareInfo, CodeBlock.of("view"));
+        appendLazyStatements(builder, lifeCycleAwareInfo, CodeBlock.of("view"));
+        appendRequestCodeStatements(builder, lifeCycleAwareInfo, CodeBlock.of("view"));
+        appendOptionsMenuStatements(builder, lifeCycleAwareInfo);
         for (NestedLifeCycleAwareInfo info : lifeCycleAwareInfo.nestedElements) {
             if (info.retained == null) {
+                beginTraceSection(builder, lifeCycleAwareInfo.element, getTraceStep(info));
                 builder.addStatement("$L.bind(collector, $L)", info.getFieldName(), info.getBindMethodParameter());
+                endTraceSection(builder);
             }
         }
 
         return builder.build();
     }
 
+    /**
+     * Appends the statements of the bind method of the given object replacing the invocations of
+     * the nested binders with their statements. Nested binders that can't be inlined (generic classes or
+     * classes defined in another package) are invoked using a static field.
+     */
+    private void appendFlatBindStatements(CodeBlock.Builder builder, List<FieldSpec> delegateFields, LifeCycleAwareInfo info,
+                                          CodeBlock target, String prefix, PackageElement hostPackage, Set<TypeElement> visiting) {
+        for (Element element : info.lifeCycleAwareElements) {
+            int events = eventsCalculator.calculateEvents(element.asType());
+            beginTraceSection(builder, info.element, element.getSimpleName());
+            if (events == LifeCycleEvents.ALL) {
+                builder.addStatement("collector.addLifeCycleAware($L.$L)", target, element);
+            } else {
+                builder.addStatement("collector.addLifeCycleAware($L.$L, $T.class, $L)",
+                        target, element, TypeUtils.getRawType(element.asType()), eventsCalculator.toCodeBlock(events));
+            }
+            endTraceSection(builder);
+        }
+        for (RetainedObjectInfo entry : info.retainedObjects) {
+            if (entry.lazy) {
+                continue;
+            }
+            beginTraceSection(builder, info.element, entry.field.getSimpleName());
+            if (entry.async) {
+                builder.addStatement("$L", generateAddAsyncRetainedFactory(entry, generateFactoryArgument(entry.field, target), target));
+                endTraceSection(builder);
+                continue;
+            }
+            CodeBlock addRetainedFactory = generateAddRetainedFactory(entry, generateFactoryArgument(entry.field, target));
+            NestedLifeCycleAwareInfo nested = info.getNestedElement(entry);
+            if (entry.fieldToPopulate != null && entry.fieldToPopulate.length() > 0) {
+                builder.addStatement("$L.$L = $L", target, entry.fieldToPopulate, addRetainedFactory);
+                if (nested != null) {
+                    appendNestedBindStatements(builder, delegateFields, nested, CodeBlock.of("$L.$L", target, entry.fieldToPopulate), prefix, hostPackage, visiting);
+                }
+            } else if (nested == null) {
+                builder.addStatement("$L", addRetainedFactory);
+            } else if (canBeInlined(nested, hostPackage, visiting)) {
+                String localName = "retained$" + prefix + nested.getFieldName();
+                builder.addStatement("final $T $L = $L", entry.typeName, localName, addRetainedFactory);
+                appendNestedBindStatements(builder, delegateFields, nested, CodeBlock.of("$L", localName), prefix, hostPackage, visiting);
+            } else {
+                appendNestedBindStatements(builder, delegateFields, nested, addRetainedFactory, prefix, hostPackage, visiting);
+            }
+            endTraceSection(builder);
+        }
+        appendScheduledStatements(builder, info, target);
+        appendLazyStatements(builder, info, target);
+        appendRequestCodeStatements(builder, info, target);
+        appendOptionsMenuStatements(builder, info);
+        for (NestedLifeCycleAwareInfo nested : info.nestedElements) {
+            if (nested.retained == null) {
+                CodeBlock nestedTarget;
+                if (!nested.isSuperclass()) {
+                    nestedTarget = CodeBlock.of("$L.$L", target, nested.getFieldName());
+                } else if (canBeInlined(nested, hostPackage, visiting)) {
+                    nestedTarget = CodeBlock.of("(($T) $L)", nested.targetInfo.element, target);
+                } else {
+                    nestedTarget = target;
+                }
+                beginTraceSection(builder, info.element, getTraceStep(nested));
+                appendNestedBindStatements(builder, delegateFields, nested, nestedTarget, prefix, hostPackage, visiting);
+                endTraceSection(builder);
+            }
+        }
+    }
+
+    private void appendNestedBindStatements(CodeBlock.Builder builder, List<FieldSpec> delegateFields, NestedLifeCycleAwareInfo nested,
+                                            CodeBlock target, String prefix, PackageElement hostPackage, Set<TypeElement> visiting) {
+        String name = prefix + nested.getFieldName();
+        if (canBeInlined(nested, hostPackage, visiting)) {
+            visiting.add(nested.targetInfo.element);
+            appendFlatBindStatements(builder, delegateFields, nested.targetInfo, target, name + "$", hostPackage, visiting);
+            visiting.remove(nested.targetInfo.element);
+        } else {
+            delegateFields.add(generateNestedBinderField(nested, name));
+            builder.addStatement("$L.bind(collector, $L)", name, target);
+        }
+    }
+
+    private boolean canBeInlined(NestedLifeCycleAwareInfo nested, PackageElement hostPackage, Set<TypeElement> visiting) {
+        TypeElement element = nested.targetInfo.element;
+        return element.getTypeParameters().isEmpty()
+                && processingEnv.getElementUtils().getPackageOf(element).equals(hostPackage)
+                && !visiting.contains(element);
+    }
+
+    /**
+     * Appends the objects whose events are dispatched later (deferred phase), on a background thread,
+     * by the circuit breaker (optional objects) and the objects bound only on some devices.
+     */
+    private void appendScheduledStatements(CodeBlock.Builder builder, LifeCycleAwareInfo info, CodeBlock target) {
+        for (Element element : info.deferredLifeCycleAwareElements) {
+            addFieldStatement(builder, element, "collector.addDeferredLifeCycleAware($L.$L, $T.class, $L)", target, element,
+                    TypeUtils.getRawType(element.asType()), eventsCalculator.toCodeBlock(eventsCalculator.calculateEvents(element.asType())));
+        }
+        for (Element element : info.backgroundLifeCycleAwareElements) {
+            addFieldStatement(builder, element, "collector.addBackgroundLifeCycleAware($L.$L, $T.class, $L)", target, element,
+                    TypeUtils.getRawType(element.asType()), eventsCalculator.toCodeBlock(eventsCalculator.calculateEvents(element.asType())));
+        }
+        for (Element element : info.optionalLifeCycleAwareElements) {
+            addFieldStatement(builder, element, "collector.addOptionalLifeCycleAware($L.$L, $T.class, $L)", target, element,
+                    TypeUtils.getRawType(element.asType()), eventsCalculator.toCodeBlock(eventsCalculator.calculateEvents(element.asType())));
+        }
+        for (Element element : info.conditionalLifeCycleAwareElements) {
+            int events = eventsCalculator.calculateEvents(element.asType());
+            if (events == LifeCycleEvents.ALL) {
+                addFieldStatement(builder, element, "collector.addLifeCycleAware($L.$L)", target, element);
+            } else {
+                addFieldStatement(builder, element, "collector.addLifeCycleAware($L.$L, $T.class, $L)",
+                        target, element, TypeUtils.getRawType(element.asType()), eventsCalculator.toCodeBlock(events));
+            }
+        }
+    }
+
+    /**
+     * Adds a statement that binds a field, it's executed only on the devices that match the
+     * conditions of the field (see {@link BindLifeCycle#minDeviceTier()}).
+     */
+    private void addFieldStatement(CodeBlock.Builder builder, Element element, String format, Object... args) {
+        BindLifeCycle annotation = element.getAnnotation(BindLifeCycle.class);
+        boolean conditional = ElementsCollector.isConditional(annotation);
+        if (conditional) {
+            builder.beginControlFlow("if ($T.matchesDevice(collector, $T.$L, $L))", BINDER_SUPPORT, DeviceTier.class,
+                    annotation.minDeviceTier(), annotation.skipOnLowRam());
+        }
+        beginTraceSection(builder, element.getEnclosingElement(), element.getSimpleName());
+        builder.addStatement(format, args);
+        endTraceSection(builder);
+        if (conditional) {
+            builder.endControlFlow();
+        }
+    }
+
+    /**
+     * Opens a trace section named after the host and the field and a try block closed by
+     * {@link #endTraceSection(CodeBlock.Builder)}, it's generated only using the lifecyclebinder.trace option.
+     */
+    private void beginTraceSection(CodeBlock.Builder builder, Element host, CharSequence step) {
+        if (trace) {
+            builder.addStatement("$T.beginSection($S)", TRACE_COMPAT, getTraceSectionName(host, step));
+            builder.beginControlFlow("try");
+        }
+    }
+
+    static CharSequence getTraceStep(NestedLifeCycleAwareInfo nested) {
+        return nested.isSuperclass() ? "super" : nested.field.getSimpleName();
+    }
+
+    private void endTraceSection(CodeBlock.Builder builder) {
+        if (trace) {
+            builder.nextControlFlow("finally")
+                    .addStatement("$T.endSection()", TRACE_COMPAT)
+                    .endControlFlow();
+        }
+    }
+
+    /**
+     * The name of a system trace section can't be longer than 127 characters.
+     */
+    static String getTraceSectionName(Element host, Object... steps) {
+        StringBuilder name = new StringBuilder(host.getSimpleName());
+        for (Object step : steps) {
+            name.append('.').append(step);
+        }
+        return name.length() > 127 ? name.substring(0, 127) : name.toString();
+    }
+
+    /**
+     * Appends the placeholders of the lazy fields and of the lazy retained objects.
+     */
+    private void appendLazyStatements(CodeBlock.Builder builder, LifeCycleAwareInfo info, CodeBlock target) {
+        for (Element element : info.lazyLifeCycleAwareElements) {
+            TypeMirror type = ((DeclaredType) element.asType()).getTypeArguments().get(0);
+            addFieldStatement(builder, element, "collector.addLazyLifeCycleAware($L, $T.class, $L)", generateFactoryArgument(element, target),
+                    TypeUtils.getRawType(type), eventsCalculator.toCodeBlock(eventsCalculator.calculateEvents(type)));
+        }
+        for (RetainedObjectInfo entry : info.retainedObjects) {
+            if (entry.lazy) {
+                TypeMirror type = ((DeclaredType) entry.field.asType()).getTypeArguments().get(0);
+                beginTraceSection(builder, info.element, entry.field.getSimpleName());
+                builder.addStatement("collector.addLazyRetainedFactory($L, $L, $T.class, $L, $L)", generateRetainedKey(entry),
+                        generateFactoryArgument(entry.field, target), TypeUtils.getRawType(type),
+                        eventsCalculator.toCodeBlock(eventsCalculator.calculateEvents(type)), generateRetainedCallback(entry, target));
+                endTraceSection(builder);
+            }
+        }
+    }
+
+    /**
+     * Appends the routes of the request codes declared using {@link BindLifeCycle#requestCodes()}.
+     */
+    private void appendRequestCodeStatements(CodeBlock.Builder builder, LifeCycleAwareInfo info, CodeBlock target) {
+        for (Element element : info.getLifeCycleAwareElementsArray()) {
+            int[] requestCodes = element.getAnnotation(BindLifeCycle.class).requestCodes();
+            if (requestCodes.length > 0) {
+                CodeBlock.Builder codes = CodeBlock.builder().add("new int[] {");
+                for (int i = 0; i < requestCodes.length; i++) {
+                    codes.add(i == 0 ? "$L" : ", $L", requestCodes[i]);
+                }
+                addFieldStatement(builder, element, "$T.addRequestCodes(collector, $L.$L, $L)", BINDER_SUPPORT, target, element,
+                        codes.add("}").build());
+            }
+        }
+    }
+
+    /**
+     * Enables the options menu for the objects declared using {@link BindLifeCycle#optionsMenu()}, a single
+     * statement is generated when an object is bound on all the devices.
+     */
+    private void appendOptionsMenuStatements(CodeBlock.Builder builder, LifeCycleAwareInfo info) {
+        List<Element> menuElements = new ArrayList<>();
+        for (Element element : info.getLifeCycleAwareElementsArray()) {
+            BindLifeCycle annotation = element.getAnnotation(BindLifeCycle.class);
+            if (annotation.optionsMenu()) {
+                if (!ElementsCollector.isConditional(annotation)) {
+                    builder.addStatement("$T.setHasOptionsMenu(collector)", BINDER_SUPPORT);
+                    return;
+                }
+                menuElements.add(element);
+            }
+        }
+        for (Element element : menuElements) {
+            addFieldStatement(builder, element, "$T.setHasOptionsMenu(collector)", BINDER_SUPPORT);
+        }
+    }
+
+    static Object generateFactoryArgument(Element field, Object target) {
+        TypeName typeName = ParameterizedTypeName.get(field.asType());
+        if (!(typeName instanceof ParameterizedTypeName)) {
+            //TODO error
+        }
+        ParameterizedTypeName parameterizedTypeName = (ParameterizedTypeName) typeName;
+        if (parameterizedTypeName.typeArguments.size() != 1) {
+            //TODO error
+        }
+        if (parameterizedTypeName.rawType.equals(TypeName.get(Callable.class))) {
+            return CodeBlock.of("$L.$L", target, field);
+        } else {
+            TypeName returnTypeName = parameterizedTypeName.typeArguments.get(0);
+            return TypeSpec.anonymousClassBuilder("")
+                    .addSuperinterface(ParameterizedTypeName.get(ClassName.get(Callable.class), returnTypeName))
+                    .addMethod(MethodSpec.methodBuilder("call")
+                            .addAnnotation(Override.class)
+                            .addModifiers(PUBLIC)
+                            .addException(Exception.class)
+                            .returns(returnTypeName)
+                            .addStatement("return $L.$L.get()", target, field)
+                            .build())
+                    .build();
+        }
+    }
+
+    private CodeBlock generateAddRetainedFactory(RetainedObjectInfo entry, Object argument) {
+        TypeMirror retainedType = ((DeclaredType) entry.field.asType()).getTypeArguments().get(0);
+        int events = eventsCalculator.calculateEvents(retainedType);
+        if (events == LifeCycleEvents.ALL) {
+            return CodeBlock.of("collector.addRetainedFactory($L, $L)", generateRetainedKey(entry), argument);
+        } else {
+            return CodeBlock.of("collector.addRetainedFactory($L, $L, $T.class, $L)",
+                    generateRetainedKey(entry), argument, TypeUtils.getRawType(retainedType), eventsCalculator.toCodeBlock(events));
+        }
+    }
+
+    private CodeBlock generateAddAsyncRetainedFactory(RetainedObjectInfo entry, Object argument, CodeBlock target) {
+        TypeMirror retainedType = ((DeclaredType) entry.field.asType()).getTypeArguments().get(0);
+        CodeBlock dependencies;
+        if (entry.dependencies.isEmpty()) {
+            dependencies = CodeBlock.of("null");
+        } else {
+            CodeBlock.Builder keys = CodeBlock.builder().add("new int[] {");
+            for (int i = 0; i < entry.dependencies.size(); i++) {
+                keys.add(i == 0 ? "$L" : ", $L", generateRetainedKey(entry.dependencies.get(i)));
+            }
+            dependencies = keys.add("}").build();
+        }
+        return CodeBlock.of("collector.addAsyncRetainedFactory($L, $L, $L, $T.class, $L, $L)",
+                generateRetainedKey(entry), argument, dependencies, TypeUtils.getRawType(retainedType),
+                eventsCalculator.toCodeBlock(eventsCalculator.calculateEvents(retainedType)), generateRetainedCallback(entry, target));
+    }
+
+    private Object generateRetainedCallback(RetainedObjectInfo entry, CodeBlock target) {
+        if (entry.fieldToPopulate != null && entry.fieldToPopulate.length() > 0) {
+            return TypeSpec.anonymousClassBuilder("")
+                    .addSuperinterface(ParameterizedTypeName.get(ClassName.get(RetainedObjectCallback.class), entry.typeName))
+                    .addMethod(MethodSpec.methodBuilder("onRetainedObjectReady")
+                            .addAnnotation(Override.class)
+                            .addModifiers(PUBLIC)
+                            .addParameter(entry.typeName, "retainedObject")
+                            .addStatement("$L.$L = retainedObject", target, entry.fieldToPopulate)
+                            .build())
+                    .build();
+        } else {
+            return "null";
+        }
+    }
+
+    /**
+     * The key is calculated using {@link RetainedKeys#of(String)}, the name is added as a comment.
+     */
+    static CodeBlock generateRetainedKey(RetainedObjectInfo entry) {
+        return CodeBlock.of("$L /* $L */", RetainedKeys.of(entry.name), entry.name);
+    }
+
+    private void checkRetainedKeys(LifeCycleAwareInfo lifeCycleAwareInfo) {
+        for (RetainedObjectInfo entry : lifeCycleAwareInfo.retainedObjects) {
+            String previous = retainedKeys.put(RetainedKeys.of(entry.name), entry.name);
+            if (previous != null && !previous.equals(entry.name)) {
+                error(entry.field, "Key of retained object %s has the same hash of key %s, please rename it", entry.name, previous);
+            }
+        }
+    }
+
     private void error(Element e, String msg, Object... args) {
         messager.printMessage(Diagnostic.Kind.ERROR, String.format(msg, args), e);
     }
@@ -0,0 +1,243 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import com.squareup.javapoet.WildcardTypeName;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+
+import it.codingjam.lifecyclebinder.data.LifeCycleAwareInfo;
+import it.codingjam.lifecyclebinder.data.NestedLifeCycleAwareInfo;
+import it.codingjam.lifecyclebinder.data.RetainedObjectInfo;
+
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+
+public class DispatcherGenerator {
+    public static final String LIFE_CYCLE_DISPATCHER_SUFFIX = "$LifeCycleDispatcher";
+
+    private static final String RETAINED_FIELD_PREFIX = "retained$";
+
+    private static final Map<String, String[]> PARAMETER_NAMES = new HashMap<>();
+
+    static {
+        PARAMETER_NAMES.put("onCreate", new String[]{"view", "savedInstanceState", "intent", "arguments"});
+        PARAMETER_NAMES.put("onCreateOptionsMenu", new String[]{"view", "menu", "inflater"});
+        PARAMETER_NAMES.put("onOptionsItemSelected", new String[]{"view", "item"});
+        PARAMETER_NAMES.put("onSaveInstanceState", new String[]{"view", "bundle"});
+        PARAMETER_NAMES.put("onDestroy", new String[]{"view", "changingConfigurations"});
+        PARAMETER_NAMES.put("onActivityResult", new String[]{"view", "requestCode", "resultCode", "data"});
+        PARAMETER_NAMES.put("onViewCreated", new String[]{"view", "savedInstanceState"});
+    }
+
+    private final Elements elements;
+
+    private final boolean trace;
+
+    public DispatcherGenerator(Elements elements, boolean trace) {
+        this.elements = elements;
+        this.trace = trace;
+    }
+
+    /**
+     * The registrations are the statements that add to the collector the objects not dispatched by this class
+     * (deferred, background, optional, conditional and lazy objects, request codes and options menu), they are
+     * executed in the constructor so the dispatchers of the nested objects register their own objects.
+     */
+    public TypeSpec generateDispatcher(LifeCycleAwareInfo lifeCycleAwareInfo, String simpleClassName, TypeName objectGenericType,
+                                       TypeName viewGenericType, List<TypeVariableName> typeVariables, CodeBlock registrations) {
+        TypeSpec.Builder builder = TypeSpec.classBuilder(simpleClassName)
+                .addModifiers(PUBLIC)
+                .addTypeVariables(typeVariables)
+                .addSuperinterface(ParameterizedTypeName.get(ClassName.get(LifeCycleAware.class), viewGenericType))
+                .addField(objectGenericType, "target", PRIVATE, FINAL);
+
+        for (RetainedObjectInfo entry : lifeCycleAwareInfo.retainedObjects) {
+            if (!entry.lazy && !hasFieldToPopulate(entry)) {
+                builder.addField(entry.typeName, RETAINED_FIELD_PREFIX + entry.name, PRIVATE, FINAL);
+            }
+        }
+        for (NestedLifeCycleAwareInfo info : lifeCycleAwareInfo.nestedElements) {
+            builder.addField(FieldSpec.builder(info.getDispatcherClassName(), info.getFieldName(), PRIVATE, FINAL).build());
+        }
+
+        builder.addMethod(generateConstructor(lifeCycleAwareInfo, objectGenericType, viewGenericType, registrations));
+
+        Map<String, String> listeners = getListenerExpressions(lifeCycleAwareInfo);
+        for (ExecutableElement method : ElementFilter.methodsIn(
+                elements.getTypeElement(LifeCycleAware.class.getName()).getEnclosedElements())) {
+            builder.addMethod(generateEventMethod(method, lifeCycleAwareInfo, viewGenericType, listeners));
+        }
+        return builder.build();
+    }
+
+    private MethodSpec generateConstructor(LifeCycleAwareInfo lifeCycleAwareInfo, TypeName objectGenericType, TypeName viewGenericType,
+                                           CodeBlock registrations) {
+        MethodSpec.Builder builder = MethodSpec.constructorBuilder()
+                .addModifiers(PUBLIC)
+                .addParameter(getCollectorType(viewGenericType), "collector")
+                .addParameter(objectGenericType, "target", FINAL)
+                .addStatement("this.target = target");
+        for (RetainedObjectInfo entry : lifeCycleAwareInfo.retainedObjects) {
+            if (entry.lazy) {
+                continue;
+            }
+            Object argument = BinderGenerator.generateFactoryArgument(entry.field, "target");
+            if (trace) {
+                builder.addStatement("$T.beginSection($S)", BinderGenerator.TRACE_COMPAT,
+                        BinderGenerator.getTraceSectionName(lifeCycleAwareInfo.element, entry.field.getSimpleName()));
+                builder.beginControlFlow("try");
+            }
+            if (hasFieldToPopulate(entry)) {
+                builder.addStatement("target.$L = collector.getRetainedObject($L, $L)", entry.fieldToPopulate,
+                        BinderGenerator.generateRetainedKey(entry), argument);
+            } else {
+                builder.addStatement("this.$L = collector.getRetainedObject($L, $L)", RETAINED_FIELD_PREFIX + entry.name,
+                        BinderGenerator.generateRetainedKey(entry), argument);
+            }
+            NestedLifeCycleAwareInfo info = lifeCycleAwareInfo.getNestedElement(entry);
+            if (info != null) {
+                builder.addStatement("this.$L = new $T(collector, $L)", info.getFieldName(), info.getDispatcherClassName(), getRetainedExpression(entry));
+            }
+            if (trace) {
+                builder.nextControlFlow("finally")
+                        .addStatement("$T.endSection()", BinderGenerator.TRACE_COMPAT)
+                        .endControlFlow();
+            }
+        }
+        for (NestedLifeCycleAwareInfo info : lifeCycleAwareInfo.nestedElements) {
+            if (info.retained == null) {
+                builder.addStatement("this.$L = new $T(collector, $L)", info.getFieldName(), info.getDispatcherClassName(), info.getBindMethodParameter("target"));
+            }
+        }
+        return builder.addCode(registrations).build();
+    }
+
+    private ParameterizedTypeName getCollectorType(TypeName viewGenericType) {
+        return ParameterizedTypeName.get(
+                ClassName.get(LifeCycleAwareCollector.class),
+                WildcardTypeName.subtypeOf(viewGenericType));
+    }
+
+    /**
+     * Returns the expressions of the listeners, the values are the names used in the trace sections.
+     */
+    private Map<String, String> getListenerExpressions(LifeCycleAwareInfo lifeCycleAwareInfo) {
+        Map<String, String> listeners = new LinkedHashMap<>();
+        for (Element element : lifeCycleAwareInfo.lifeCycleAwareElements) {
+            listeners.put("target." + element.getSimpleName(), element.getSimpleName().toString());
+        }
+        for (RetainedObjectInfo entry : lifeCycleAwareInfo.retainedObjects) {
+            if (entry.lazy) {
+                continue;
+            }
+            listeners.put(getRetainedExpression(entry), entry.field.getSimpleName().toString());
+            NestedLifeCycleAwareInfo info = lifeCycleAwareInfo.getNestedElement(entry);
+            if (info != null) {
+                listeners.put(info.getFieldName(), BinderGenerator.getTraceStep(info).toString());
+            }
+        }
+        for (NestedLifeCycleAwareInfo info : lifeCycleAwareInfo.nestedElements) {
+            if (info.retained == null) {
+                listeners.put(info.getFieldName(), BinderGenerator.getTraceStep(info).toString());
+            }
+        }
+        return listeners;
+    }
+
+    private MethodSpec generateEventMethod(ExecutableElement method, LifeCycleAwareInfo lifeCycleAwareInfo, TypeName viewGenericType,
+                                           Map<String, String> listeners) {
+        String methodName = method.getSimpleName().toString();
+        String[] parameterNames = PARAMETER_NAMES.containsKey(methodName) ? PARAMETER_NAMES.get(methodName) : new String[]{"view"};
+        MethodSpec.Builder builder = MethodSpec.methodBuilder(methodName)
+                .addAnnotation(Override.class)
+                .addModifiers(PUBLIC)
+                .returns(TypeName.get(method.getReturnType()));
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            TypeName type = i == 0 ? viewGenericType : TypeName.get(parameters.get(i).asType());
+            builder.addParameter(type, parameterNames[i]);
+        }
+        String arguments = join(parameterNames);
+        boolean returnsBoolean = method.getReturnType().getKind() == TypeKind.BOOLEAN;
+        for (Map.Entry<String, String> listener : listeners.entrySet()) {
+            if (trace) {
+                builder.addStatement("$T.beginSection($S)", BinderGenerator.TRACE_COMPAT,
+                        BinderGenerator.getTraceSectionName(lifeCycleAwareInfo.element, listener.getValue(), methodName));
+                builder.beginControlFlow("try");
+            }
+            if (returnsBoolean) {
+                builder.beginControlFlow("if ($L.$L($L))", listener.getKey(), methodName, arguments)
+                        .addStatement("return true")
+                        .endControlFlow();
+            } else {
+                builder.addStatement("$L.$L($L)", listener.getKey(), methodName, arguments);
+            }
+            if (trace) {
+                builder.nextControlFlow("finally")
+                        .addStatement("$T.endSection()", BinderGenerator.TRACE_COMPAT)
+                        .endControlFlow();
+            }
+        }
+        if (returnsBoolean) {
+            builder.addStatement("return false");
+        }
+        return builder.build();
+    }
+
+    private static String getRetainedExpression(RetainedObjectInfo entry) {
+        if (hasFieldToPopulate(entry)) {
+            return "target." + entry.fieldToPopulate;
+        } else {
+            return RETAINED_FIELD_PREFIX + entry.name;
+        }
+    }
+
+    private static boolean hasFieldToPopulate(RetainedObjectInfo entry) {
+        return entry.fieldToPopulate != null && entry.fieldToPopulate.length() > 0;
+    }
+
+    private static String join(String[] parameterNames) {
+        StringBuilder b = new StringBuilder();
+        for (String name : parameterNames) {
+            if (b.length() > 0) {
+                b.append(", ");
+            }
+            b.append(name);
+        }
+        return b.toString();
+    }
+}
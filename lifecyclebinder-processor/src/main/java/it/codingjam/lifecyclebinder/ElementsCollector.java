@@ -21,6 +21,7 @@ import com.squareup.javapoet.TypeName;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -64,15 +65,53 @@ public class ElementsCollector {
 
             VariableElement variable = (VariableElement) element;
             TypeName variableType = TypeName.get(variable.asType());
+            TypeElement enclosingElement = (TypeElement) variable.getEnclosingElement();
+            LifeCycleAwareInfo info = getLifeCycleAwareInfo(elementsByClass, enclosingElement);
+
+            BindLifeCycle annotation = variable.getAnnotation(BindLifeCycle.class);
+            boolean deferred = annotation.phase() == Phase.DEFERRED;
+            boolean background = annotation.thread() == DispatchThread.BACKGROUND;
+            if ((annotation.lazy() ? 1 : 0) + (deferred ? 1 : 0) + (background ? 1 : 0) + (annotation.optional() ? 1 : 0) > 1) {
+                error(element, "Field %s can use only one of lazy, optional, DEFERRED phase and BACKGROUND thread", variable.getSimpleName());
+            }
+            if (annotation.requestCodes().length > 0 && (annotation.lazy() || background)) {
+                error(element, "Field %s can't declare request codes, it's lazy or dispatched in background", variable.getSimpleName());
+            }
+            for (int requestCode : annotation.requestCodes()) {
+                if (requestCode < 0 || requestCode > 0xFFFF) {
+                    error(element, "Request code %d of field %s must be between 0 and 65535", requestCode, variable.getSimpleName());
+                }
+                Element previous = info.requestCodes.put(requestCode, variable);
+                if (previous != null) {
+                    error(element, "Request code %d of field %s is already used by field %s", requestCode, variable.getSimpleName(), previous.getSimpleName());
+                }
+            }
+            if (annotation.lazy()) {
+                List<TypeName> typeArguments = TypeUtils.getTypeArguments(variableType);
+                if (typeArguments.size() != 1 || !TypeUtils.isAssignable(elements, typeArguments.get(0), lifeCycleAwareType)) {
+                    error(element, "Field %s is lazy, it must be a Callable or a Provider of a class that implements %s",
+                            variable.getSimpleName(), LifeCycleAware.class.getSimpleName());
+                }
+                info.lazyLifeCycleAwareElements.add(variable);
+                continue;
+            }
+
             if (!TypeUtils.isAssignable(elements, variableType, lifeCycleAwareType)) {
                 error(element, "Class %s is annotated with %s, it must implement %s",
                         variableType, BindLifeCycle.class.getSimpleName(), LifeCycleAware.class.getSimpleName());
             }
 
-            TypeElement enclosingElement = (TypeElement) variable.getEnclosingElement();
-
-            LifeCycleAwareInfo info = getLifeCycleAwareInfo(elementsByClass, enclosingElement);
-            info.lifeCycleAwareElements.add(variable);
+            if (deferred) {
+                info.deferredLifeCycleAwareElements.add(variable);
+            } else if (background) {
+                info.backgroundLifeCycleAwareElements.add(variable);
+            } else if (annotation.optional()) {
+                info.optionalLifeCycleAwareElements.add(variable);
+            } else if (isConditional(annotation)) {
+                info.conditionalLifeCycleAwareElements.add(variable);
+            } else {
+                info.lifeCycleAwareElements.add(variable);
+            }
         }
 
         for (Element element : retainedObjectElements) {
@@ -89,25 +128,48 @@ public class ElementsCollector {
 
             LifeCycleAwareInfo info = getLifeCycleAwareInfo(elementsByClass, enclosingElement);
             TypeName typeName = TypeUtils.getTypeArguments(variable.asType()).get(0);
-            info.retainedObjects.add(new RetainedObjectInfo(variable.getSimpleName().toString(), variable, typeName, annotation.value()));
+            info.retainedObjects.add(new RetainedObjectInfo(variable.getSimpleName().toString(), variable, typeName, annotation.value(),
+                    annotation.async(), annotation.dependsOn(), annotation.lazy()));
+            if (annotation.async() && annotation.lazy()) {
+                error(element, "Retained object %s can't be both async and lazy", variable.getSimpleName());
+            }
         }
         return new ArrayList<>(elementsByClass.values());
     }
 
 
+    /**
+     * Returns true when the field is bound only on some devices.
+     */
+    static boolean isConditional(BindLifeCycle annotation) {
+        return annotation.minDeviceTier() != DeviceTier.LOW || annotation.skipOnLowRam();
+    }
+
     public void calculateNestedElements(List<LifeCycleAwareInfo> elementsByClass) {
         for (LifeCycleAwareInfo lifeCycleAwareInfo : elementsByClass) {
             for (Element element : lifeCycleAwareInfo.lifeCycleAwareElements) {
                 for (LifeCycleAwareInfo entry : elementsByClass) {
                     if (entry.element.asType().equals(element.asType())) {
-                        lifeCycleAwareInfo.nestedElements.add(NestedLifeCycleAwareInfo.createNestedLifeCycleAwareInfo(element));
+                        lifeCycleAwareInfo.nestedElements.add(NestedLifeCycleAwareInfo.createNestedLifeCycleAwareInfo(element, entry));
+                    }
+                }
+            }
+            List<Element> notNestableElements = new ArrayList<>(lifeCycleAwareInfo.deferredLifeCycleAwareElements);
+            notNestableElements.addAll(lifeCycleAwareInfo.backgroundLifeCycleAwareElements);
+            notNestableElements.addAll(lifeCycleAwareInfo.optionalLifeCycleAwareElements);
+            notNestableElements.addAll(lifeCycleAwareInfo.conditionalLifeCycleAwareElements);
+            for (Element element : notNestableElements) {
+                for (LifeCycleAwareInfo entry : elementsByClass) {
+                    if (entry.element.asType().equals(element.asType())) {
+                        error(element, "Field %s can't be deferred, optional, conditional or dispatched in background, %s contains fields annotated with @%s",
+                                element.getSimpleName(), entry.element.getSimpleName(), BindLifeCycle.class.getSimpleName());
                     }
                 }
             }
             TypeMirror superclass = lifeCycleAwareInfo.element.getSuperclass();
             for (LifeCycleAwareInfo entry : elementsByClass) {
                 if (TypeUtils.isRawTypeEquals(superclass, entry.element.asType())) {
-                    lifeCycleAwareInfo.nestedElements.add(NestedLifeCycleAwareInfo.createSuperclass(lifeCycleAwareInfo.element));
+                    lifeCycleAwareInfo.nestedElements.add(NestedLifeCycleAwareInfo.createSuperclass(lifeCycleAwareInfo.element, entry));
                     break;
                 }
             }
@@ -115,11 +177,72 @@ public class ElementsCollector {
             for (RetainedObjectInfo retainedEntry : lifeCycleAwareInfo.retainedObjects) {
                 for (LifeCycleAwareInfo entry : elementsByClass) {
                     if (ClassName.get(entry.element.asType()).equals(retainedEntry.typeName)) {
-                        lifeCycleAwareInfo.nestedElements.add(NestedLifeCycleAwareInfo.createRetainedObject(retainedEntry.field, retainedEntry));
+                        if (retainedEntry.async || retainedEntry.lazy) {
+                            error(retainedEntry.field, "Retained object %s can't be async or lazy, %s contains fields annotated with @%s",
+                                    retainedEntry.name, retainedEntry.typeName, BindLifeCycle.class.getSimpleName());
+                        }
+                        lifeCycleAwareInfo.nestedElements.add(NestedLifeCycleAwareInfo.createRetainedObject(retainedEntry.field, retainedEntry, entry));
+                    }
+                }
+            }
+            sortRetainedObjects(lifeCycleAwareInfo);
+        }
+    }
+
+    /**
+     * Resolves the dependsOn names and sorts the retained objects so every factory is
+     * added to the collector after its dependencies.
+     */
+    private void sortRetainedObjects(LifeCycleAwareInfo lifeCycleAwareInfo) {
+        List<RetainedObjectInfo> retainedObjects = lifeCycleAwareInfo.retainedObjects;
+        for (RetainedObjectInfo entry : retainedObjects) {
+            for (String name : entry.dependsOn) {
+                RetainedObjectInfo dependency = null;
+                for (RetainedObjectInfo other : retainedObjects) {
+                    if (other.hasName(name)) {
+                        dependency = other;
+                        break;
                     }
                 }
+                if (dependency == null || dependency == entry) {
+                    error(entry.field, "Retained object %s depends on %s, no retained object with this name is defined in %s",
+                            entry.name, name, lifeCycleAwareInfo.element.getSimpleName());
+                } else if (dependency.async && !entry.async) {
+                    error(entry.field, "Retained object %s depends on async retained object %s, it must be async too", entry.name, name);
+                } else if (dependency.lazy) {
+                    error(entry.field, "Retained object %s depends on lazy retained object %s", entry.name, name);
+                } else if (!entry.dependencies.contains(dependency)) {
+                    entry.dependencies.add(dependency);
+                }
+            }
+        }
+        List<RetainedObjectInfo> sorted = new ArrayList<>();
+        Set<RetainedObjectInfo> visiting = new HashSet<>();
+        for (RetainedObjectInfo entry : retainedObjects) {
+            if (!visitRetainedObject(entry, sorted, visiting)) {
+                return;
+            }
+        }
+        retainedObjects.clear();
+        retainedObjects.addAll(sorted);
+    }
+
+    private boolean visitRetainedObject(RetainedObjectInfo entry, List<RetainedObjectInfo> sorted, Set<RetainedObjectInfo> visiting) {
+        if (sorted.contains(entry)) {
+            return true;
+        }
+        if (!visiting.add(entry)) {
+            error(entry.field, "Retained object %s is part of a dependency cycle", entry.name);
+            return false;
+        }
+        for (RetainedObjectInfo dependency : entry.dependencies) {
+            if (!visitRetainedObject(dependency, sorted, visiting)) {
+                return false;
             }
         }
+        visiting.remove(entry);
+        sorted.add(entry);
+        return true;
     }
 
 
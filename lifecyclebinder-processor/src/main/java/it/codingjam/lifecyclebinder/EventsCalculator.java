@@ -0,0 +1,109 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+
+import java.util.List;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+public class EventsCalculator {
+    private static final String DEFAULT_LIFE_CYCLE_AWARE = "it.codingjam.lifecyclebinder.DefaultLifeCycleAware";
+
+    private static final ClassName LIFE_CYCLE_EVENTS = ClassName.get(LifeCycleEvents.class);
+
+    private final Types types;
+    private final Elements elements;
+
+    public EventsCalculator(Types types, Elements elements) {
+        this.types = types;
+        this.elements = elements;
+    }
+
+    public int calculateEvents(TypeMirror type) {
+        TypeElement defaultLifeCycleAware = elements.getTypeElement(DEFAULT_LIFE_CYCLE_AWARE);
+        if (defaultLifeCycleAware == null || type.getKind() != TypeKind.DECLARED) {
+            return LifeCycleEvents.ALL;
+        }
+        TypeElement typeElement = (TypeElement) types.asElement(type);
+        if (typeElement.getKind() != ElementKind.CLASS
+                || !types.isSubtype(types.erasure(type), types.erasure(defaultLifeCycleAware.asType()))) {
+            return LifeCycleEvents.ALL;
+        }
+        int events = 0;
+        for (ExecutableElement method : ElementFilter.methodsIn(defaultLifeCycleAware.getEnclosedElements())) {
+            if (isOverridden(typeElement, defaultLifeCycleAware, method)) {
+                events |= getEvent(method);
+            }
+        }
+        return events;
+    }
+
+    private boolean isOverridden(TypeElement typeElement, TypeElement defaultLifeCycleAware, ExecutableElement method) {
+        TypeElement current = typeElement;
+        while (!current.equals(defaultLifeCycleAware)) {
+            for (ExecutableElement m : ElementFilter.methodsIn(current.getEnclosedElements())) {
+                if (elements.overrides(m, method, typeElement)) {
+                    return true;
+                }
+            }
+            current = (TypeElement) types.asElement(current.getSuperclass());
+        }
+        return false;
+    }
+
+    private int getEvent(ExecutableElement method) {
+        try {
+            return LifeCycleEvents.class.getField(getConstantName(method)).getInt(null);
+        } catch (Exception e) {
+            throw new RuntimeException("Unknown LifeCycleAware method " + method, e);
+        }
+    }
+
+    public CodeBlock toCodeBlock(int events) {
+        if (events == LifeCycleEvents.ALL) {
+            return CodeBlock.of("$T.ALL", LIFE_CYCLE_EVENTS);
+        }
+        if (events == 0) {
+            return CodeBlock.of("0");
+        }
+        CodeBlock.Builder builder = CodeBlock.builder();
+        List<? extends Element> methods = elements.getTypeElement(LifeCycleAware.class.getName()).getEnclosedElements();
+        String separator = "";
+        for (ExecutableElement method : ElementFilter.methodsIn(methods)) {
+            if ((events & getEvent(method)) != 0) {
+                builder.add("$L$T.$L", separator, LIFE_CYCLE_EVENTS, getConstantName(method));
+                separator = " | ";
+            }
+        }
+        return builder.build();
+    }
+
+    private static String getConstantName(ExecutableElement method) {
+        return method.getSimpleName().toString().replaceAll("([A-Z])", "_$1").toUpperCase();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaFileObject;
+
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+/**
+ * Generates a LifeCycleBinderIndex that maps every host class compiled in this module
+ * to its binder, the index allows to create the binders without reflection.
+ */
+public class IndexGenerator {
+    private final ProcessingEnvironment processingEnv;
+
+    private final Map<String, ClassName> bindersByHostName = new TreeMap<>();
+
+    public IndexGenerator(ProcessingEnvironment processingEnv) {
+        this.processingEnv = processingEnv;
+    }
+
+    public void addHost(TypeElement hostElement) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(hostElement);
+        String hostName = processingEnv.getElementUtils().getBinaryName(hostElement).toString();
+        bindersByHostName.put(hostName, ClassName.get(packageElement.getQualifiedName().toString(),
+                hostElement.getSimpleName().toString() + BinderGenerator.LIFE_CYCLE_BINDER_SUFFIX));
+    }
+
+    public boolean isEmpty() {
+        return bindersByHostName.isEmpty();
+    }
+
+    public void generateIndex(String qualifiedClassName) {
+        ClassName className = ClassName.bestGuess(qualifiedClassName);
+
+        CodeBlock.Builder hostNames = CodeBlock.builder().add("{\n").indent();
+        CodeBlock.Builder switchBlock = CodeBlock.builder().beginControlFlow("switch (id)");
+        int id = 0;
+        for (Map.Entry<String, ClassName> entry : bindersByHostName.entrySet()) {
+            hostNames.add("$S,\n", entry.getKey());
+            switchBlock.add("case $L:\n", id++).indent()
+                    .addStatement("return $T.INSTANCE", entry.getValue())
+                    .unindent();
+        }
+        hostNames.unindent().add("}");
+        switchBlock.add("default:\n").indent()
+                .addStatement("throw new $T($S + id)", IllegalArgumentException.class, "Unknown binder id ")
+                .unindent()
+                .endControlFlow();
+
+        TypeName objectBinderType = ParameterizedTypeName.get(ClassName.get(ObjectBinder.class),
+                WildcardTypeName.subtypeOf(Object.class), WildcardTypeName.subtypeOf(Object.class));
+
+        TypeSpec typeSpec = TypeSpec.classBuilder(className)
+                .addModifiers(PUBLIC, FINAL)
+                .addSuperinterface(LifeCycleBinderIndex.class)
+                .addField(FieldSpec.builder(ArrayTypeName.of(String.class), "HOST_CLASS_NAMES", PRIVATE, STATIC, FINAL)
+                        .initializer(hostNames.build())
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getHostClassNames")
+                        .addAnnotation(Override.class)
+                        .addModifiers(PUBLIC)
+                        .returns(ArrayTypeName.of(String.class))
+                        .addStatement("return HOST_CLASS_NAMES")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getBinder")
+                        .addAnnotation(Override.class)
+                        .addModifiers(PUBLIC)
+                        .returns(objectBinderType)
+                        .addParameter(int.class, "id")
+                        .addCode(switchBlock.build())
+                        .build())
+                .build();
+
+        try {
+            JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(qualifiedClassName);
+            Writer writer = sourceFile.openWriter();
+            JavaFile.builder(className.packageName(), typeSpec).skipJavaLangImports(true)
+                    .build()
+                    .writeTo(writer);
+            writer.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed writing class file " + qualifiedClassName, e);
+        }
+    }
+}
@@ -25,6 +25,7 @@ import javax.annotation.processing.Messager;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.util.Elements;
@@ -34,8 +35,22 @@ import javax.lang.model.util.Types;
         "it.codingjam.lifecyclebinder.BindLifeCycle",
         "it.codingjam.lifecyclebinder.RetainedObjectProvider"
 })
+@SupportedOptions({
+        LifeCycleBinderProcessor.OPTION_DISPATCHER,
+        LifeCycleBinderProcessor.OPTION_INDEX,
+        LifeCycleBinderProcessor.OPTION_FLATTEN,
+        LifeCycleBinderProcessor.OPTION_TRACE
+})
 public class LifeCycleBinderProcessor extends AbstractProcessor {
 
+    public static final String OPTION_DISPATCHER = "lifecyclebinder.dispatcher";
+
+    public static final String OPTION_INDEX = "lifecyclebinder.index";
+
+    public static final String OPTION_FLATTEN = "lifecyclebinder.flatten";
+
+    public static final String OPTION_TRACE = "lifecyclebinder.trace";
+
     private Types types;
     private Elements elements;
     private Filer filer;
@@ -45,6 +60,10 @@ public class LifeCycleBinderProcessor extends AbstractProcessor {
 
     private BinderGenerator binderGenerator;
 
+    private String indexClassName;
+
+    private IndexGenerator indexGenerator;
+
     @Override
     public synchronized void init(ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
@@ -53,7 +72,14 @@ public class LifeCycleBinderProcessor extends AbstractProcessor {
         filer = processingEnv.getFiler();
         messager = processingEnv.getMessager();
         elementsCollector = new ElementsCollector(messager, types, elements);
-        binderGenerator = new BinderGenerator(processingEnv, types, messager);
+        binderGenerator = new BinderGenerator(processingEnv, types, messager,
+                Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_DISPATCHER)),
+                Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_FLATTEN)),
+                Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_TRACE)));
+        indexClassName = processingEnv.getOptions().get(OPTION_INDEX);
+        if (indexClassName != null) {
+            indexGenerator = new IndexGenerator(processingEnv);
+        }
     }
 
     @Override
@@ -67,14 +93,29 @@ public class LifeCycleBinderProcessor extends AbstractProcessor {
             return true;
         }
 
+        if (elementsByClass.isEmpty()) {
+            generateIndex(roundEnv);
+            return false;
+        }
+
         elementsCollector.calculateNestedElements(elementsByClass);
 
         for (LifeCycleAwareInfo entry : elementsByClass) {
             binderGenerator.generateBinder(entry);
+            if (indexGenerator != null) {
+                indexGenerator.addHost(entry.element);
+            }
         }
         return false;
     }
 
+    private void generateIndex(RoundEnvironment roundEnv) {
+        if (indexGenerator != null && !indexGenerator.isEmpty() && !roundEnv.processingOver()) {
+            indexGenerator.generateIndex(indexClassName);
+            indexGenerator = null;
+        }
+    }
+
     @Override public SourceVersion getSupportedSourceVersion() {
         return SourceVersion.latestSupported();
     }
@@ -17,7 +17,9 @@
 package it.codingjam.lifecyclebinder.data;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
@@ -27,6 +29,21 @@ public class LifeCycleAwareInfo {
 
     public final List<Element> lifeCycleAwareElements = new ArrayList<>();
 
+    public final List<Element> lazyLifeCycleAwareElements = new ArrayList<>();
+
+    public final List<Element> deferredLifeCycleAwareElements = new ArrayList<>();
+
+    public final List<Element> backgroundLifeCycleAwareElements = new ArrayList<>();
+
+    public final List<Element> optionalLifeCycleAwareElements = new ArrayList<>();
+
+    public final List<Element> conditionalLifeCycleAwareElements = new ArrayList<>();
+
+    /**
+     * Request codes declared using {@link it.codingjam.lifecyclebinder.BindLifeCycle#requestCodes()}.
+     */
+    public final Map<Integer, Element> requestCodes = new LinkedHashMap<>();
+
     public final List<NestedLifeCycleAwareInfo> nestedElements = new ArrayList<>();
 
     public final List<RetainedObjectInfo> retainedObjects = new ArrayList<>();
@@ -40,13 +57,25 @@ public class LifeCycleAwareInfo {
         return "LifeCycleAwareInfo{" +
                 "element=" + element +
                 ", lifeCycleAwareElements=" + lifeCycleAwareElements +
+                ", lazyLifeCycleAwareElements=" + lazyLifeCycleAwareElements +
+                ", deferredLifeCycleAwareElements=" + deferredLifeCycleAwareElements +
+                ", backgroundLifeCycleAwareElements=" + backgroundLifeCycleAwareElements +
+                ", optionalLifeCycleAwareElements=" + optionalLifeCycleAwareElements +
+                ", conditionalLifeCycleAwareElements=" + conditionalLifeCycleAwareElements +
+                ", requestCodes=" + requestCodes +
                 ", nestedElements=" + nestedElements +
                 ", retainedObjects=" + retainedObjects +
                 '}';
     }
 
     public Element[] getLifeCycleAwareElementsArray() {
-        return lifeCycleAwareElements.toArray(new Element[lifeCycleAwareElements.size()]);
+        List<Element> elements = new ArrayList<>(lifeCycleAwareElements);
+        elements.addAll(lazyLifeCycleAwareElements);
+        elements.addAll(deferredLifeCycleAwareElements);
+        elements.addAll(backgroundLifeCycleAwareElements);
+        elements.addAll(optionalLifeCycleAwareElements);
+        elements.addAll(conditionalLifeCycleAwareElements);
+        return elements.toArray(new Element[elements.size()]);
     }
 
     public boolean isNested(RetainedObjectInfo entry) {
@@ -57,4 +86,13 @@ public class LifeCycleAwareInfo {
         }
         return false;
     }
+
+    public NestedLifeCycleAwareInfo getNestedElement(RetainedObjectInfo entry) {
+        for (NestedLifeCycleAwareInfo info : nestedElements) {
+            if (info.retained == entry) {
+                return info;
+            }
+        }
+        return null;
+    }
 }
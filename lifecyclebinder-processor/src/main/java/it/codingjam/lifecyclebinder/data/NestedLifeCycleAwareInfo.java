@@ -26,52 +26,75 @@ import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
 
 import it.codingjam.lifecyclebinder.BinderGenerator;
+import it.codingjam.lifecyclebinder.DispatcherGenerator;
 
 public class NestedLifeCycleAwareInfo {
 
     public final Element field;
 
     public final RetainedObjectInfo retained;
+
+    public final LifeCycleAwareInfo targetInfo;
     private final String fieldName;
-    private final String bindMethodParameter;
+    private final String fieldAccess;
     private final TypeName binderClassName;
+    private final TypeName dispatcherClassName;
 
-    private NestedLifeCycleAwareInfo(Element field, RetainedObjectInfo retained, String fieldName, String bindMethodParameter, TypeName targetClassName) {
+    private NestedLifeCycleAwareInfo(Element field, RetainedObjectInfo retained, LifeCycleAwareInfo targetInfo,
+                                     String fieldName, String fieldAccess, TypeName targetClassName) {
         this.field = field;
         this.retained = retained;
+        this.targetInfo = targetInfo;
         this.fieldName = fieldName;
-        this.bindMethodParameter = bindMethodParameter;
+        this.fieldAccess = fieldAccess;
+        this.binderClassName = getGeneratedClassName(targetClassName, BinderGenerator.LIFE_CYCLE_BINDER_SUFFIX);
+        this.dispatcherClassName = getGeneratedClassName(targetClassName, DispatcherGenerator.LIFE_CYCLE_DISPATCHER_SUFFIX);
+    }
+
+    private static TypeName getGeneratedClassName(TypeName targetClassName, String suffix) {
         List<TypeName> typeArguments = it.codingjam.lifecyclebinder.utils.TypeUtils.getTypeArguments(targetClassName);
         if (typeArguments.isEmpty()) {
-            this.binderClassName = ClassName.bestGuess(targetClassName + BinderGenerator.LIFE_CYCLE_BINDER_SUFFIX);
+            return ClassName.bestGuess(targetClassName + suffix);
         } else {
-            this.binderClassName = ParameterizedTypeName.get(
-                    ClassName.bestGuess(it.codingjam.lifecyclebinder.utils.TypeUtils.getRawType(targetClassName) + BinderGenerator.LIFE_CYCLE_BINDER_SUFFIX),
+            return ParameterizedTypeName.get(
+                    ClassName.bestGuess(it.codingjam.lifecyclebinder.utils.TypeUtils.getRawType(targetClassName) + suffix),
                     typeArguments.toArray(new TypeName[typeArguments.size()]));
         }
     }
 
-    public static NestedLifeCycleAwareInfo createNestedLifeCycleAwareInfo(Element field) {
-        return new NestedLifeCycleAwareInfo(field, null, field.getSimpleName().toString(), "view." + field.getSimpleName().toString(), TypeName.get(field.asType()));
+    public static NestedLifeCycleAwareInfo createNestedLifeCycleAwareInfo(Element field, LifeCycleAwareInfo targetInfo) {
+        return new NestedLifeCycleAwareInfo(field, null, targetInfo, field.getSimpleName().toString(), "." + field.getSimpleName().toString(), TypeName.get(field.asType()));
     }
 
-    public static NestedLifeCycleAwareInfo createRetainedObject(Element field, RetainedObjectInfo retained) {
-        return new NestedLifeCycleAwareInfo(field, retained, field.getSimpleName().toString(), "view." + field.getSimpleName().toString(), retained.typeName);
+    public static NestedLifeCycleAwareInfo createRetainedObject(Element field, RetainedObjectInfo retained, LifeCycleAwareInfo targetInfo) {
+        return new NestedLifeCycleAwareInfo(field, retained, targetInfo, field.getSimpleName().toString(), "." + field.getSimpleName().toString(), retained.typeName);
     }
 
-    public static NestedLifeCycleAwareInfo createSuperclass(TypeElement field) {
-        return new NestedLifeCycleAwareInfo(field, null, "superClass$lifeCycleBinder", "view", TypeName.get(field.getSuperclass()));
+    public static NestedLifeCycleAwareInfo createSuperclass(TypeElement field, LifeCycleAwareInfo targetInfo) {
+        return new NestedLifeCycleAwareInfo(field, null, targetInfo, "superClass$lifeCycleBinder", "", TypeName.get(field.getSuperclass()));
     }
 
     public TypeName getBinderClassName() {
         return binderClassName;
     }
 
+    public TypeName getDispatcherClassName() {
+        return dispatcherClassName;
+    }
+
     public String getFieldName() {
         return fieldName;
     }
 
+    public boolean isSuperclass() {
+        return fieldAccess.isEmpty();
+    }
+
     public String getBindMethodParameter() {
-        return bindMethodParameter;
+        return getBindMethodParameter("view");
+    }
+
+    public String getBindMethodParameter(String target) {
+        return target + fieldAccess;
     }
 }
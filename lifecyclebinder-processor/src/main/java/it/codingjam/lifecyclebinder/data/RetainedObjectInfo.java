@@ -18,6 +18,9 @@ package it.codingjam.lifecyclebinder.data;
 
 import com.squareup.javapoet.TypeName;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.lang.model.element.Element;
 
 public class RetainedObjectInfo {
@@ -29,10 +32,30 @@ public class RetainedObjectInfo {
 
     public final String fieldToPopulate;
 
+    public final boolean async;
+
+    public final String[] dependsOn;
+
+    public final boolean lazy;
+
+    public final List<RetainedObjectInfo> dependencies = new ArrayList<>();
+
     public RetainedObjectInfo(String name, Element field, TypeName typeName, String fieldToPopulate) {
+        this(name, field, typeName, fieldToPopulate, false, new String[0], false);
+    }
+
+    public RetainedObjectInfo(String name, Element field, TypeName typeName, String fieldToPopulate, boolean async, String[] dependsOn,
+                              boolean lazy) {
         this.name = name;
         this.field = field;
         this.typeName = typeName;
         this.fieldToPopulate = fieldToPopulate;
+        this.async = async;
+        this.dependsOn = dependsOn;
+        this.lazy = lazy;
+    }
+
+    public boolean hasName(String name) {
+        return this.name.equals(name) || name.equals(fieldToPopulate);
     }
 }
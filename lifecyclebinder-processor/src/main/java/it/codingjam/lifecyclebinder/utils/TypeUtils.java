@@ -19,6 +19,8 @@ package it.codingjam.lifecyclebinder.utils;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeVariableName;
+import com.squareup.javapoet.WildcardTypeName;
 
 import java.util.Collections;
 import java.util.List;
@@ -58,6 +60,26 @@ public class TypeUtils {
         }
     }
 
+    public static boolean containsTypeVariable(TypeName typeName) {
+        if (typeName instanceof TypeVariableName) {
+            return true;
+        }
+        if (typeName instanceof WildcardTypeName) {
+            WildcardTypeName wildcard = (WildcardTypeName) typeName;
+            return containsTypeVariable(wildcard.upperBounds) || containsTypeVariable(wildcard.lowerBounds);
+        }
+        return containsTypeVariable(getTypeArguments(typeName));
+    }
+
+    private static boolean containsTypeVariable(List<TypeName> typeNames) {
+        for (TypeName typeName : typeNames) {
+            if (containsTypeVariable(typeName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static boolean isAssignable(Elements elements, TypeName t1, TypeName t2) {
         TypeElement e1 = elements.getTypeElement(getRawType(t1).toString());
         List<? extends TypeMirror> interfaces = e1.getInterfaces();
@@ -0,0 +1,38 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package it.codingjam.lifecyclebinder;
+
+/**
+ * Stub of the lib class used by the generated binders, the lib is an Android library and it's not
+ * available in the processor tests.
+ */
+public final class BinderSupport {
+
+    private BinderSupport() {
+    }
+
+    public static boolean matchesDevice(LifeCycleAwareCollector<?> collector, DeviceTier minDeviceTier, boolean skipOnLowRam) {
+        return true;
+    }
+
+    public static <T> void addRequestCodes(LifeCycleAwareCollector<T> collector, LifeCycleAware<? super T> lifeCycleAware,
+                                           int[] requestCodes) {
+    }
+
+    public static void setHasOptionsMenu(LifeCycleAwareCollector<?> collector) {
+    }
+}
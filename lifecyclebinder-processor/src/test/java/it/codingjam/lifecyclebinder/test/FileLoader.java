@@ -18,12 +18,15 @@ package it.codingjam.lifecyclebinder.test;
 
 import com.google.testing.compile.JavaFileObjects;
 import com.google.testing.compile.JavaSourceSubjectFactory;
+import com.google.testing.compile.JavaSourcesSubjectFactory;
 
 import org.truth0.Truth;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.tools.JavaFileObject;
 
@@ -31,9 +34,17 @@ import it.codingjam.lifecyclebinder.LifeCycleBinderProcessor;
 
 public class FileLoader {
     public static JavaFileObject loadClass(String source) {
+        return loadClass("../test-data-lib/src/main/java/", source);
+    }
+
+    public static JavaFileObject loadLibClass(String source) {
+        return loadClass("../lifecyclebinder-lib/src/main/java/", source);
+    }
+
+    private static JavaFileObject loadClass(String sourceDir, String source) {
         BufferedReader reader = null;
         try {
-            reader = new BufferedReader(new FileReader("../test-data-lib/src/main/java/" + source.replace('.', '/') + ".java"));
+            reader = new BufferedReader(new FileReader(sourceDir + source.replace('.', '/') + ".java"));
             StringBuilder b = new StringBuilder();
             String s;
             while ((s = reader.readLine()) != null) {
@@ -60,6 +71,34 @@ public class FileLoader {
         checkSingleFile(name, expected + "$LifeCycleBinder");
     }
 
+    public static void checkWithLibClasses(String name, String... libClasses) {
+        List<JavaFileObject> sources = new ArrayList<>();
+        sources.add(loadClass(name));
+        for (String libClass : libClasses) {
+            sources.add(loadLibClass(libClass));
+        }
+        Truth.ASSERT.about(JavaSourcesSubjectFactory.javaSources())
+                .that(sources)
+                .processedWith(new LifeCycleBinderProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(loadClass(name + "$LifeCycleBinder"));
+    }
+
+    public static void checkWithOptions(String name, String option, String expected, String... otherExpected) {
+        JavaFileObject[] otherExpectedFiles = new JavaFileObject[otherExpected.length];
+        for (int i = 0; i < otherExpected.length; i++) {
+            otherExpectedFiles[i] = loadClass(otherExpected[i]);
+        }
+        Truth.ASSERT.about(JavaSourceSubjectFactory.javaSource())
+                .that(loadClass(name))
+                .withCompilerOptions(option)
+                .processedWith(new LifeCycleBinderProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(loadClass(expected), otherExpectedFiles);
+    }
+
     private static void checkSingleFile(String name, String expected) {
         JavaFileObject target = loadClass(name);
         Truth.ASSERT.about(JavaSourceSubjectFactory.javaSource())
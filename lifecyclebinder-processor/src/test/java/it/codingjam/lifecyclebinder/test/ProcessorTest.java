@@ -27,6 +27,8 @@ import it.codingjam.lifecyclebinder.LifeCycleBinderProcessor;
 import it.codingjam.lifecyclebinder.LifeCycleAware;
 
 import static it.codingjam.lifecyclebinder.test.FileLoader.check;
+import static it.codingjam.lifecyclebinder.test.FileLoader.checkWithLibClasses;
+import static it.codingjam.lifecyclebinder.test.FileLoader.checkWithOptions;
 
 public class ProcessorTest {
     @Test
@@ -71,6 +73,46 @@ public class ProcessorTest {
                 "com.test.nestedfactory.MyObjectWithParcelableAndInnerObject");
     }
 
+    @Test
+    public void testAsyncRetained() throws Exception {
+        check("com.test.async.ActivityWithAsyncRetained");
+    }
+
+    @Test
+    public void testLazy() throws Exception {
+        check("com.test.lazy.ActivityWithLazy");
+    }
+
+    @Test
+    public void testDeferred() throws Exception {
+        check("com.test.deferred.ActivityWithDeferred");
+    }
+
+    @Test
+    public void testBackground() throws Exception {
+        check("com.test.background.ActivityWithBackground");
+    }
+
+    @Test
+    public void testOptional() throws Exception {
+        check("com.test.optional.ActivityWithOptional");
+    }
+
+    @Test
+    public void testConditional() throws Exception {
+        check("com.test.conditional.ActivityWithConditional");
+    }
+
+    @Test
+    public void testRequestCodes() throws Exception {
+        check("com.test.activityresult.ActivityWithRequestCodes");
+    }
+
+    @Test
+    public void testOptionsMenu() throws Exception {
+        check("com.test.menu.ActivityWithOptionsMenu");
+    }
+
     @Test
     public void testRetainedObjectsWithProviders() throws Exception {
         check("com.test.retainedObjectsWithProvider.ActivityWithRetainedProvider");
@@ -96,6 +138,46 @@ public class ProcessorTest {
         check("com.test.objectWithNestedGenericBaseClass.MyObjectWithGenericBaseClass");
     }
 
+    @Test
+    public void testDefaultLifeCycleAwareEvents() throws Exception {
+        checkWithLibClasses("com.test.events.ActivityWithDefaultLifeCycleAware",
+                "it.codingjam.lifecyclebinder.DefaultLifeCycleAware");
+    }
+
+    @Test
+    public void testDispatcher() throws Exception {
+        checkWithOptions("com.test.dispatcher.ActivityWithDispatcher", "-Alifecyclebinder.dispatcher=true",
+                "com.test.dispatcher.ActivityWithDispatcher$LifeCycleBinder",
+                "com.test.dispatcher.ActivityWithDispatcher$LifeCycleDispatcher");
+    }
+
+    @Test
+    public void testDispatcherWithNestedObject() throws Exception {
+        checkWithOptions("com.test.dispatcher.ActivityWithNestedDispatcher", "-Alifecyclebinder.dispatcher=true",
+                "com.test.dispatcher.ActivityWithNestedDispatcher$LifeCycleBinder",
+                "com.test.dispatcher.ActivityWithNestedDispatcher$LifeCycleDispatcher",
+                "com.test.dispatcher.Presenter$LifeCycleDispatcher");
+    }
+
+    @Test
+    public void testIndex() throws Exception {
+        checkWithOptions("com.test.activityWithBaseClass.MyActivityWithBaseClass",
+                "-Alifecyclebinder.index=com.test.index.ActivityWithBaseClassIndex",
+                "com.test.index.ActivityWithBaseClassIndex");
+    }
+
+    @Test
+    public void testFlatten() throws Exception {
+        checkWithOptions("com.test.flatten.ActivityWithFlatten", "-Alifecyclebinder.flatten=true",
+                "com.test.flatten.ActivityWithFlatten$LifeCycleBinder");
+    }
+
+    @Test
+    public void testTrace() throws Exception {
+        checkWithOptions("com.test.trace.ActivityWithTrace", "-Alifecyclebinder.trace=true",
+                "com.test.trace.ActivityWithTrace$LifeCycleBinder");
+    }
+
     @Test
     public void testActivityObjectNotExtendsLifeCycleAware() throws Exception {
         JavaFileObject target = FileLoader.loadClass("com.test.errors.ActivityObjectNotExtendsLifeCycleAware");
@@ -105,4 +187,24 @@ public class ProcessorTest {
                 .failsToCompile()
                 .withErrorContaining("must implement " + LifeCycleAware.class.getSimpleName());
     }
+
+    @Test
+    public void testRetainedDependencyCycle() throws Exception {
+        JavaFileObject target = FileLoader.loadClass("com.test.errors.ActivityWithRetainedDependencyCycle");
+        Truth.ASSERT.about(JavaSourceSubjectFactory.javaSource())
+                .that(target)
+                .processedWith(new LifeCycleBinderProcessor())
+                .failsToCompile()
+                .withErrorContaining("is part of a dependency cycle");
+    }
+
+    @Test
+    public void testDuplicatedRequestCode() throws Exception {
+        JavaFileObject target = FileLoader.loadClass("com.test.errors.ActivityWithDuplicatedRequestCode");
+        Truth.ASSERT.about(JavaSourceSubjectFactory.javaSource())
+                .that(target)
+                .processedWith(new LifeCycleBinderProcessor())
+                .failsToCompile()
+                .withErrorContaining("Request code 1 of field picker is already used by field sharer");
+    }
 }
@@ -20,6 +20,8 @@ import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
 import it.codingjam.lifecyclebinder.ObjectBinder;
 
 public class BaseClass$LifeCycleBinder extends ObjectBinder<BaseClass, BaseClass> {
+    public static final BaseClass$LifeCycleBinder INSTANCE = new BaseClass$LifeCycleBinder();
+
     public void bind(LifeCycleAwareCollector<? extends BaseClass> collector, final BaseClass view) {
         collector.addLifeCycleAware(view.myBaseObject);
     }
@@ -20,8 +20,9 @@ import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
 import it.codingjam.lifecyclebinder.ObjectBinder;
 
 public class MyActivityWithBaseClass$LifeCycleBinder extends ObjectBinder<MyActivityWithBaseClass, MyActivityWithBaseClass> {
+    public static final MyActivityWithBaseClass$LifeCycleBinder INSTANCE = new MyActivityWithBaseClass$LifeCycleBinder();
 
-    private BaseClass$LifeCycleBinder superClass$lifeCycleBinder = new BaseClass$LifeCycleBinder();
+    private static final BaseClass$LifeCycleBinder superClass$lifeCycleBinder = BaseClass$LifeCycleBinder.INSTANCE;
 
     public void bind(LifeCycleAwareCollector<? extends MyActivityWithBaseClass> collector, final MyActivityWithBaseClass view) {
         collector.addLifeCycleAware(view.myObject);
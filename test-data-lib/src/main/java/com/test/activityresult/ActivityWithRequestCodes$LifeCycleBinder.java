@@ -0,0 +1,35 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.test.activityresult;
+
+import com.test.MyObject;
+import it.codingjam.lifecyclebinder.BinderSupport;
+import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
+import it.codingjam.lifecyclebinder.LifeCycleEvents;
+import it.codingjam.lifecyclebinder.ObjectBinder;
+
+public class ActivityWithRequestCodes$LifeCycleBinder extends ObjectBinder<ActivityWithRequestCodes, ActivityWithRequestCodes> {
+    public static final ActivityWithRequestCodes$LifeCycleBinder INSTANCE = new ActivityWithRequestCodes$LifeCycleBinder();
+
+    public void bind(LifeCycleAwareCollector<? extends ActivityWithRequestCodes> collector, final ActivityWithRequestCodes view) {
+        collector.addLifeCycleAware(view.myObject);
+        collector.addLifeCycleAware(view.sharer);
+        collector.addDeferredLifeCycleAware(view.picker, MyObject.class, LifeCycleEvents.ALL);
+        BinderSupport.addRequestCodes(collector, view.sharer, new int[] {1, 2});
+        BinderSupport.addRequestCodes(collector, view.picker, new int[] {3});
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.test.async;
+
+import com.test.MyObject;
+import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
+import it.codingjam.lifecyclebinder.LifeCycleEvents;
+import it.codingjam.lifecyclebinder.ObjectBinder;
+import it.codingjam.lifecyclebinder.RetainedObjectCallback;
+
+public class ActivityWithAsyncRetained$LifeCycleBinder extends ObjectBinder<ActivityWithAsyncRetained, ActivityWithAsyncRetained> {
+    public static final ActivityWithAsyncRetained$LifeCycleBinder INSTANCE = new ActivityWithAsyncRetained$LifeCycleBinder();
+
+    public void bind(LifeCycleAwareCollector<? extends ActivityWithAsyncRetained> collector, final ActivityWithAsyncRetained view) {
+        collector.addAsyncRetainedFactory(1522331116 /* repositoryProvider */, view.repositoryProvider, null, MyObject.class, LifeCycleEvents.ALL, new RetainedObjectCallback<MyObject>() {
+            @Override
+            public void onRetainedObjectReady(MyObject retainedObject) {
+                view.repository = retainedObject;
+            }
+        });
+        collector.addAsyncRetainedFactory(1004685957 /* myObjectProvider */, view.myObjectProvider, new int[] {1522331116 /* repositoryProvider */}, MyObject.class, LifeCycleEvents.ALL, new RetainedObjectCallback<MyObject>() {
+            @Override
+            public void onRetainedObjectReady(MyObject retainedObject) {
+                view.myObject = retainedObject;
+            }
+        });
+        collector.addAsyncRetainedFactory(-1833415974 /* analyticsProvider */, view.analyticsProvider, new int[] {1004685957 /* myObjectProvider */, 1522331116 /* repositoryProvider */}, MyObject.class, LifeCycleEvents.ALL, null);
+    }
+}
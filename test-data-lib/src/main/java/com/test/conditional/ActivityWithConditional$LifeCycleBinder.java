@@ -0,0 +1,41 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.test.conditional;
+
+import com.test.MyObject;
+import it.codingjam.lifecyclebinder.BinderSupport;
+import it.codingjam.lifecyclebinder.DeviceTier;
+import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
+import it.codingjam.lifecyclebinder.LifeCycleEvents;
+import it.codingjam.lifecyclebinder.ObjectBinder;
+
+public class ActivityWithConditional$LifeCycleBinder extends ObjectBinder<ActivityWithConditional, ActivityWithConditional> {
+    public static final ActivityWithConditional$LifeCycleBinder INSTANCE = new ActivityWithConditional$LifeCycleBinder();
+
+    public void bind(LifeCycleAwareCollector<? extends ActivityWithConditional> collector, final ActivityWithConditional view) {
+        collector.addLifeCycleAware(view.myObject);
+        if (BinderSupport.matchesDevice(collector, DeviceTier.MEDIUM, false)) {
+            collector.addDeferredLifeCycleAware(view.prefetcher, MyObject.class, LifeCycleEvents.ALL);
+        }
+        if (BinderSupport.matchesDevice(collector, DeviceTier.HIGH, false)) {
+            collector.addLifeCycleAware(view.animations);
+        }
+        if (BinderSupport.matchesDevice(collector, DeviceTier.LOW, true)) {
+            collector.addLazyLifeCycleAware(view.imageCache, MyObject.class, LifeCycleEvents.ALL);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.test.dispatcher;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuInflater;
+import android.view.MenuItem;
+import it.codingjam.lifecyclebinder.LifeCycleAware;
+import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
+
+public class ActivityWithDispatcher$LifeCycleDispatcher implements LifeCycleAware<ActivityWithDispatcher> {
+    private final ActivityWithDispatcher target;
+
+    private final NestedObject retained$nestedFactory;
+
+    private final NestedObject$LifeCycleDispatcher nestedObject;
+
+    private final BaseActivity$LifeCycleDispatcher superClass$lifeCycleBinder;
+
+    private final NestedObject$LifeCycleDispatcher nestedFactory;
+
+    public ActivityWithDispatcher$LifeCycleDispatcher(LifeCycleAwareCollector<? extends ActivityWithDispatcher> collector, final ActivityWithDispatcher target) {
+        this.target = target;
+        target.retainedObject = collector.getRetainedObject(364012884 /* retainedObjectFactory */, target.retainedObjectFactory);
+        this.retained$nestedFactory = collector.getRetainedObject(-1102901204 /* nestedFactory */, target.nestedFactory);
+        this.nestedFactory = new NestedObject$LifeCycleDispatcher(collector, retained$nestedFactory);
+        this.nestedObject = new NestedObject$LifeCycleDispatcher(collector, target.nestedObject);
+        this.superClass$lifeCycleBinder = new BaseActivity$LifeCycleDispatcher(collector, target);
+    }
+
+    @Override
+    public void onCreate(ActivityWithDispatcher view, Bundle savedInstanceState, Intent intent, Bundle arguments) {
+        target.myObject.onCreate(view, savedInstanceState, intent, arguments);
+        target.nestedObject.onCreate(view, savedInstanceState, intent, arguments);
+        target.retainedObject.onCreate(view, savedInstanceState, intent, arguments);
+        retained$nestedFactory.onCreate(view, savedInstanceState, intent, arguments);
+        nestedFactory.onCreate(view, savedInstanceState, intent, arguments);
+        nestedObject.onCreate(view, savedInstanceState, intent, arguments);
+        superClass$lifeCycleBinder.onCreate(view, savedInstanceState, intent, arguments);
+    }
+
+    @Override
+    public void onStart(ActivityWithDispatcher view) {
+        target.myObject.onStart(view);
+        target.nestedObject.onStart(view);
+        target.retainedObject.onStart(view);
+        retained$nestedFactory.onStart(view);
+        nestedFactory.onStart(view);
+        nestedObject.onStart(view);
+        superClass$lifeCycleBinder.onStart(view);
+    }
+
+    @Override
+    public void onResume(ActivityWithDispatcher view) {
+        target.myObject.onResume(view);
+        target.nestedObject.onResume(view);
+        target.retainedObject.onResume(view);
+        retained$nestedFactory.onResume(view);
+        nestedFactory.onResume(view);
+        nestedObject.onResume(view);
+        superClass$lifeCycleBinder.onResume(view);
+    }
+
+    @Override
+    public boolean hasOptionsMenu(ActivityWithDispatcher view) {
+        if (target.myObject.hasOptionsMenu(view)) {
+            return true;
+        }
+        if (target.nestedObject.hasOptionsMenu(view)) {
+            return true;
+        }
+        if (target.retainedObject.hasOptionsMenu(view)) {
+            return true;
+        }
+        if (retained$nestedFactory.hasOptionsMenu(view)) {
+            return true;
+        }
+        if (nestedFactory.hasOptionsMenu(view)) {
+            return true;
+        }
+        if (nestedObject.hasOptionsMenu(view)) {
+            return true;
+        }
+        if (superClass$lifeCycleBinder.hasOptionsMenu(view)) {
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void onCreateOptionsMenu(ActivityWithDispatcher view, Menu menu, MenuInflater inflater) {
+        target.myObject.onCreateOptionsMenu(view, menu, inflater);
+        target.nestedObject.onCreateOptionsMenu(view, menu, inflater);
+        target.retainedObject.onCreateOptionsMenu(view, menu, inflater);
+        retained$nestedFactory.onCreateOptionsMenu(view, menu, inflater);
+        nestedFactory.onCreateOptionsMenu(view, menu, inflater);
+        nestedObject.onCreateOptionsMenu(view, menu, inflater);
+        superClass$lifeCycleBinder.onCreateOptionsMenu(view, menu, inflater);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(ActivityWithDispatcher view, MenuItem item) {
+        if (target.myObject.onOptionsItemSelected(view, item)) {
+            return true;
+        }
+        if (target.nestedObject.onOptionsItemSelected(view, item)) {
+            return true;
+        }
+        if (target.retainedObject.onOptionsItemSelected(view, item)) {
+            return true;
+        }
+        if (retained$nestedFactory.onOptionsItemSelected(view, item)) {
+            return true;
+        }
+        if (nestedFactory.onOptionsItemSelected(view, item)) {
+            return true;
+        }
+        if (nestedObject.onOptionsItemSelected(view, item)) {
+            return true;
+        }
+        if (superClass$lifeCycleBinder.onOptionsItemSelected(view, item)) {
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void onPause(ActivityWithDispatcher view) {
+        target.myObject.onPause(view);
+        target.nestedObject.onPause(view);
+        target.retainedObject.onPause(view);
+        retained$nestedFactory.onPause(view);
+        nestedFactory.onPause(view);
+        nestedObject.onPause(view);
+        superClass$lifeCycleBinder.onPause(view);
+    }
+
+    @Override
+    public void onStop(ActivityWithDispatcher view) {
+        target.myObject.onStop(view);
+        target.nestedObject.onStop(view);
+        target.retainedObject.onStop(view);
+        retained$nestedFactory.onStop(view);
+        nestedFactory.onStop(view);
+        nestedObject.onStop(view);
+        superClass$lifeCycleBinder.onStop(view);
+    }
+
+    @Override
+    public void onSaveInstanceState(ActivityWithDispatcher view, Bundle bundle) {
+        target.myObject.onSaveInstanceState(view, bundle);
+        target.nestedObject.onSaveInstanceState(view, bundle);
+        target.retainedObject.onSaveInstanceState(view, bundle);
+        retained$nestedFactory.onSaveInstanceState(view, bundle);
+        nestedFactory.onSaveInstanceState(view, bundle);
+        nestedObject.onSaveInstanceState(view, bundle);
+        superClass$lifeCycleBinder.onSaveInstanceState(view, bundle);
+    }
+
+    @Override
+    public void onDestroy(ActivityWithDispatcher view, boolean changingConfigurations) {
+        target.myObject.onDestroy(view, changingConfigurations);
+        target.nestedObject.onDestroy(view, changingConfigurations);
+        target.retainedObject.onDestroy(view, changingConfigurations);
+        retained$nestedFactory.onDestroy(view, changingConfigurations);
+        nestedFactory.onDestroy(view, changingConfigurations);
+        nestedObject.onDestroy(view, changingConfigurations);
+        superClass$lifeCycleBinder.onDestroy(view, changingConfigurations);
+    }
+
+    @Override
+    public void onActivityResult(ActivityWithDispatcher view, int requestCode, int resultCode, Intent data) {
+        target.myObject.onActivityResult(view, requestCode, resultCode, data);
+        target.nestedObject.onActivityResult(view, requestCode, resultCode, data);
+        target.retainedObject.onActivityResult(view, requestCode, resultCode, data);
+        retained$nestedFactory.onActivityResult(view, requestCode, resultCode, data);
+        nestedFactory.onActivityResult(view, requestCode, resultCode, data);
+        nestedObject.onActivityResult(view, requestCode, resultCode, data);
+        superClass$lifeCycleBinder.onActivityResult(view, requestCode, resultCode, data);
+    }
+
+    @Override
+    public void onViewCreated(ActivityWithDispatcher view, Bundle savedInstanceState) {
+        target.myObject.onViewCreated(view, savedInstanceState);
+        target.nestedObject.onViewCreated(view, savedInstanceState);
+        target.retainedObject.onViewCreated(view, savedInstanceState);
+        retained$nestedFactory.onViewCreated(view, savedInstanceState);
+        nestedFactory.onViewCreated(view, savedInstanceState);
+        nestedObject.onViewCreated(view, savedInstanceState);
+        superClass$lifeCycleBinder.onViewCreated(view, savedInstanceState);
+    }
+
+    @Override
+    public void onDestroyView(ActivityWithDispatcher view) {
+        target.myObject.onDestroyView(view);
+        target.nestedObject.onDestroyView(view);
+        target.retainedObject.onDestroyView(view);
+        retained$nestedFactory.onDestroyView(view);
+        nestedFactory.onDestroyView(view);
+        nestedObject.onDestroyView(view);
+        superClass$lifeCycleBinder.onDestroyView(view);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.test.dispatcher;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuInflater;
+import android.view.MenuItem;
+import it.codingjam.lifecyclebinder.LifeCycleAware;
+import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
+
+public class ActivityWithNestedDispatcher$LifeCycleDispatcher implements LifeCycleAware<ActivityWithNestedDispatcher> {
+    private final ActivityWithNestedDispatcher target;
+
+    private final Presenter$LifeCycleDispatcher presenter;
+
+    public ActivityWithNestedDispatcher$LifeCycleDispatcher(LifeCycleAwareCollector<? extends ActivityWithNestedDispatcher> collector, final ActivityWithNestedDispatcher target) {
+        this.target = target;
+        this.presenter = new Presenter$LifeCycleDispatcher(collector, target.presenter);
+    }
+
+    @Override
+    public void onCreate(ActivityWithNestedDispatcher view, Bundle savedInstanceState, Intent intent, Bundle arguments) {
+        target.myObject.onCreate(view, savedInstanceState, intent, arguments);
+        target.presenter.onCreate(view, savedInstanceState, intent, arguments);
+        presenter.onCreate(view, savedInstanceState, intent, arguments);
+    }
+
+    @Override
+    public void onStart(ActivityWithNestedDispatcher view) {
+        target.myObject.onStart(view);
+        target.presenter.onStart(view);
+        presenter.onStart(view);
+    }
+
+    @Override
+    public void onResume(ActivityWithNestedDispatcher view) {
+        target.myObject.onResume(view);
+        target.presenter.onResume(view);
+        presenter.onResume(view);
+    }
+
+    @Override
+    public boolean hasOptionsMenu(ActivityWithNestedDispatcher view) {
+        if (target.myObject.hasOptionsMenu(view)) {
+            return true;
+        }
+        if (target.presenter.hasOptionsMenu(view)) {
+            return true;
+        }
+        if (presenter.hasOptionsMenu(view)) {
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void onCreateOptionsMenu(ActivityWithNestedDispatcher view, Menu menu, MenuInflater inflater) {
+        target.myObject.onCreateOptionsMenu(view, menu, inflater);
+        target.presenter.onCreateOptionsMenu(view, menu, inflater);
+        presenter.onCreateOptionsMenu(view, menu, inflater);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(ActivityWithNestedDispatcher view, MenuItem item) {
+        if (target.myObject.onOptionsItemSelected(view, item)) {
+            return true;
+        }
+        if (target.presenter.onOptionsItemSelected(view, item)) {
+            return true;
+        }
+        if (presenter.onOptionsItemSelected(view, item)) {
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void onPause(ActivityWithNestedDispatcher view) {
+        target.myObject.onPause(view);
+        target.presenter.onPause(view);
+        presenter.onPause(view);
+    }
+
+    @Override
+    public void onStop(ActivityWithNestedDispatcher view) {
+        target.myObject.onStop(view);
+        target.presenter.onStop(view);
+        presenter.onStop(view);
+    }
+
+    @Override
+    public void onSaveInstanceState(ActivityWithNestedDispatcher view, Bundle bundle) {
+        target.myObject.onSaveInstanceState(view, bundle);
+        target.presenter.onSaveInstanceState(view, bundle);
+        presenter.onSaveInstanceState(view, bundle);
+    }
+
+    @Override
+    public void onDestroy(ActivityWithNestedDispatcher view, boolean changingConfigurations) {
+        target.myObject.onDestroy(view, changingConfigurations);
+        target.presenter.onDestroy(view, changingConfigurations);
+        presenter.onDestroy(view, changingConfigurations);
+    }
+
+    @Override
+    public void onActivityResult(ActivityWithNestedDispatcher view, int requestCode, int resultCode, Intent data) {
+        target.myObject.onActivityResult(view, requestCode, resultCode, data);
+        target.presenter.onActivityResult(view, requestCode, resultCode, data);
+        presenter.onActivityResult(view, requestCode, resultCode, data);
+    }
+
+    @Override
+    public void onViewCreated(ActivityWithNestedDispatcher view, Bundle savedInstanceState) {
+        target.myObject.onViewCreated(view, savedInstanceState);
+        target.presenter.onViewCreated(view, savedInstanceState);
+        presenter.onViewCreated(view, savedInstanceState);
+    }
+
+    @Override
+    public void onDestroyView(ActivityWithNestedDispatcher view) {
+        target.myObject.onDestroyView(view);
+        target.presenter.onDestroyView(view);
+        presenter.onDestroyView(view);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.test.dispatcher;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuInflater;
+import android.view.MenuItem;
+import com.test.MyObject;
+import com.test.MyView;
+import it.codingjam.lifecyclebinder.BinderSupport;
+import it.codingjam.lifecyclebinder.DeviceTier;
+import it.codingjam.lifecyclebinder.LifeCycleAware;
+import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
+import it.codingjam.lifecyclebinder.LifeCycleEvents;
+
+public class Presenter$LifeCycleDispatcher implements LifeCycleAware<MyView> {
+    private final Presenter target;
+
+    public Presenter$LifeCycleDispatcher(LifeCycleAwareCollector<? extends MyView> collector, final Presenter target) {
+        this.target = target;
+        collector.addDeferredLifeCycleAware(target.deferredLogger, MyObject.class, LifeCycleEvents.ALL);
+        collector.addBackgroundLifeCycleAware(target.backgroundLogger, MyObject.class, LifeCycleEvents.ALL);
+        collector.addOptionalLifeCycleAware(target.optionalObject, MyObject.class, LifeCycleEvents.ALL);
+        if (BinderSupport.matchesDevice(collector, DeviceTier.HIGH, false)) {
+            collector.addLifeCycleAware(target.animations);
+        }
+        collector.addLazyLifeCycleAware(target.lazyObject, MyObject.class, LifeCycleEvents.ALL);
+        BinderSupport.addRequestCodes(collector, target.picker, new int[] {1});
+        BinderSupport.setHasOptionsMenu(collector);
+    }
+
+    @Override
+    public void onCreate(MyView view, Bundle savedInstanceState, Intent intent, Bundle arguments) {
+        target.innerObject.onCreate(view, savedInstanceState, intent, arguments);
+        target.picker.onCreate(view, savedInstanceState, intent, arguments);
+    }
+
+    @Override
+    public void onStart(MyView view) {
+        target.innerObject.onStart(view);
+        target.picker.onStart(view);
+    }
+
+    @Override
+    public void onResume(MyView view) {
+        target.innerObject.onResume(view);
+        target.picker.onResume(view);
+    }
+
+    @Override
+    public boolean hasOptionsMenu(MyView view) {
+        if (target.innerObject.hasOptionsMenu(view)) {
+            return true;
+        }
+        if (target.picker.hasOptionsMenu(view)) {
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void onCreateOptionsMenu(MyView view, Menu menu, MenuInflater inflater) {
+        target.innerObject.onCreateOptionsMenu(view, menu, inflater);
+        target.picker.onCreateOptionsMenu(view, menu, inflater);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MyView view, MenuItem item) {
+        if (target.innerObject.onOptionsItemSelected(view, item)) {
+            return true;
+        }
+        if (target.picker.onOptionsItemSelected(view, item)) {
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void onPause(MyView view) {
+        target.innerObject.onPause(view);
+        target.picker.onPause(view);
+    }
+
+    @Override
+    public void onStop(MyView view) {
+        target.innerObject.onStop(view);
+        target.picker.onStop(view);
+    }
+
+    @Override
+    public void onSaveInstanceState(MyView view, Bundle bundle) {
+        target.innerObject.onSaveInstanceState(view, bundle);
+        target.picker.onSaveInstanceState(view, bundle);
+    }
+
+    @Override
+    public void onDestroy(MyView view, boolean changingConfigurations) {
+        target.innerObject.onDestroy(view, changingConfigurations);
+        target.picker.onDestroy(view, changingConfigurations);
+    }
+
+    @Override
+    public void onActivityResult(MyView view, int requestCode, int resultCode, Intent data) {
+        target.innerObject.onActivityResult(view, requestCode, resultCode, data);
+        target.picker.onActivityResult(view, requestCode, resultCode, data);
+    }
+
+    @Override
+    public void onViewCreated(MyView view, Bundle savedInstanceState) {
+        target.innerObject.onViewCreated(view, savedInstanceState);
+        target.picker.onViewCreated(view, savedInstanceState);
+    }
+
+    @Override
+    public void onDestroyView(MyView view) {
+        target.innerObject.onDestroyView(view);
+        target.picker.onDestroyView(view);
+    }
+}
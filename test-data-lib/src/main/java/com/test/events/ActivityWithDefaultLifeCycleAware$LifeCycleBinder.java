@@ -0,0 +1,33 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.test.events;
+
+import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
+import it.codingjam.lifecyclebinder.LifeCycleEvents;
+import it.codingjam.lifecyclebinder.ObjectBinder;
+
+public class ActivityWithDefaultLifeCycleAware$LifeCycleBinder extends ObjectBinder<ActivityWithDefaultLifeCycleAware, ActivityWithDefaultLifeCycleAware> {
+    public static final ActivityWithDefaultLifeCycleAware$LifeCycleBinder INSTANCE = new ActivityWithDefaultLifeCycleAware$LifeCycleBinder();
+
+    public void bind(LifeCycleAwareCollector<? extends ActivityWithDefaultLifeCycleAware> collector, final ActivityWithDefaultLifeCycleAware view) {
+        collector.addLifeCycleAware(view.startObject, StartObject.class, LifeCycleEvents.ON_START);
+        collector.addLifeCycleAware(view.startAndMenuObject, StartAndMenuObject.class, LifeCycleEvents.ON_START | LifeCycleEvents.HAS_OPTIONS_MENU | LifeCycleEvents.ON_OPTIONS_ITEM_SELECTED);
+        collector.addLifeCycleAware(view.emptyObject, EmptyObject.class, 0);
+        collector.addLifeCycleAware(view.myObject);
+        collector.addRetainedFactory(1018281906 /* createObject */, view.createObject, CreateObject.class, LifeCycleEvents.ON_CREATE);
+    }
+}
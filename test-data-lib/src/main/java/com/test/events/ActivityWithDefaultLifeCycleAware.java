@@ -0,0 +1,80 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.test.events;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.support.v4.app.FragmentActivity;
+import android.view.MenuItem;
+
+import com.test.MyObject;
+import com.test.MyView;
+
+import java.util.concurrent.Callable;
+
+import it.codingjam.lifecyclebinder.BindLifeCycle;
+import it.codingjam.lifecyclebinder.DefaultLifeCycleAware;
+import it.codingjam.lifecyclebinder.RetainedObjectProvider;
+
+class StartObject extends DefaultLifeCycleAware<MyView> {
+    @Override
+    public void onStart(MyView view) {
+    }
+}
+
+class StartAndMenuObject extends StartObject {
+    @Override
+    public boolean hasOptionsMenu(MyView view) {
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MyView view, MenuItem item) {
+        return false;
+    }
+}
+
+class EmptyObject extends DefaultLifeCycleAware<MyView> {
+}
+
+class CreateObject extends DefaultLifeCycleAware<MyView> {
+    @Override
+    public void onCreate(MyView view, Bundle savedInstanceState, Intent intent, Bundle arguments) {
+    }
+}
+
+public class ActivityWithDefaultLifeCycleAware extends FragmentActivity implements MyView {
+    @BindLifeCycle
+    StartObject startObject;
+
+    @BindLifeCycle
+    StartAndMenuObject startAndMenuObject;
+
+    @BindLifeCycle
+    EmptyObject emptyObject;
+
+    @BindLifeCycle
+    MyObject myObject;
+
+    @RetainedObjectProvider
+    Callable<CreateObject> createObject = new Callable<CreateObject>() {
+        @Override
+        public CreateObject call() throws Exception {
+            return new CreateObject();
+        }
+    };
+}
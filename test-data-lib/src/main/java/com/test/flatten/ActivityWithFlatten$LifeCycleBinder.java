@@ -0,0 +1,34 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.test.flatten;
+
+import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
+import it.codingjam.lifecyclebinder.ObjectBinder;
+
+public class ActivityWithFlatten$LifeCycleBinder extends ObjectBinder<ActivityWithFlatten, ActivityWithFlatten> {
+    public static final ActivityWithFlatten$LifeCycleBinder INSTANCE = new ActivityWithFlatten$LifeCycleBinder();
+
+    public void bind(LifeCycleAwareCollector<? extends ActivityWithFlatten> collector, final ActivityWithFlatten view) {
+        collector.addLifeCycleAware(view.logger);
+        final Presenter retained$presenterFactory = collector.addRetainedFactory(421021879 /* presenterFactory */, view.presenterFactory);
+        collector.addLifeCycleAware(retained$presenterFactory.logger);
+        retained$presenterFactory.retained = collector.addRetainedFactory(1206256388 /* retainedProvider */, retained$presenterFactory.retainedProvider);
+        collector.addLifeCycleAware(retained$presenterFactory.logger.tracker);
+        collector.addLifeCycleAware(((BasePresenter) retained$presenterFactory).baseObject);
+        collector.addLifeCycleAware(view.logger.tracker);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.test.flatten;
+
+import android.support.v4.app.FragmentActivity;
+
+import com.test.MyObject;
+import com.test.MyView;
+
+import java.util.concurrent.Callable;
+
+import it.codingjam.lifecyclebinder.BindLifeCycle;
+import it.codingjam.lifecyclebinder.RetainedObjectProvider;
+
+class Logger extends MyObject {
+    @BindLifeCycle
+    MyObject tracker;
+}
+
+class BasePresenter extends MyObject {
+    @BindLifeCycle
+    MyObject baseObject;
+}
+
+class Presenter extends BasePresenter {
+    @BindLifeCycle
+    Logger logger;
+
+    MyObject retained;
+
+    @RetainedObjectProvider("retained")
+    Callable<MyObject> retainedProvider = new Callable<MyObject>() {
+        @Override
+        public MyObject call() throws Exception {
+            return new MyObject();
+        }
+    };
+}
+
+public class ActivityWithFlatten extends FragmentActivity implements MyView {
+    @BindLifeCycle
+    Logger logger;
+
+    @RetainedObjectProvider
+    Callable<Presenter> presenterFactory = new Callable<Presenter>() {
+        @Override
+        public Presenter call() throws Exception {
+            return new Presenter();
+        }
+    };
+}
@@ -0,0 +1,46 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.test.index;
+
+import com.test.activityWithBaseClass.BaseClass$LifeCycleBinder;
+import com.test.activityWithBaseClass.MyActivityWithBaseClass$LifeCycleBinder;
+import it.codingjam.lifecyclebinder.LifeCycleBinderIndex;
+import it.codingjam.lifecyclebinder.ObjectBinder;
+
+public final class ActivityWithBaseClassIndex implements LifeCycleBinderIndex {
+  private static final String[] HOST_CLASS_NAMES = {
+    "com.test.activityWithBaseClass.BaseClass",
+    "com.test.activityWithBaseClass.MyActivityWithBaseClass",
+  };
+
+  @Override
+  public String[] getHostClassNames() {
+    return HOST_CLASS_NAMES;
+  }
+
+  @Override
+  public ObjectBinder<?, ?> getBinder(int id) {
+    switch (id) {
+      case 0:
+        return BaseClass$LifeCycleBinder.INSTANCE;
+      case 1:
+        return MyActivityWithBaseClass$LifeCycleBinder.INSTANCE;
+      default:
+        throw new IllegalArgumentException("Unknown binder id " + id);
+    }
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.test.lazy;
+
+import com.test.MyObject;
+import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
+import it.codingjam.lifecyclebinder.LifeCycleEvents;
+import it.codingjam.lifecyclebinder.ObjectBinder;
+import it.codingjam.lifecyclebinder.RetainedObjectCallback;
+
+public class ActivityWithLazy$LifeCycleBinder extends ObjectBinder<ActivityWithLazy, ActivityWithLazy> {
+    public static final ActivityWithLazy$LifeCycleBinder INSTANCE = new ActivityWithLazy$LifeCycleBinder();
+
+    public void bind(LifeCycleAwareCollector<? extends ActivityWithLazy> collector, final ActivityWithLazy view) {
+        collector.addLifeCycleAware(view.myObject);
+        collector.addLazyLifeCycleAware(view.lazyObject, MyObject.class, LifeCycleEvents.ALL);
+        collector.addLazyRetainedFactory(1206256388 /* retainedProvider */, view.retainedProvider, MyObject.class, LifeCycleEvents.ALL, new RetainedObjectCallback<MyObject>() {
+            @Override
+            public void onRetainedObjectReady(MyObject retainedObject) {
+                view.retained = retainedObject;
+            }
+        });
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.test.menu;
+
+import it.codingjam.lifecyclebinder.BinderSupport;
+import it.codingjam.lifecyclebinder.DeviceTier;
+import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
+import it.codingjam.lifecyclebinder.ObjectBinder;
+
+public class ActivityWithOptionsMenu$LifeCycleBinder extends ObjectBinder<ActivityWithOptionsMenu, ActivityWithOptionsMenu> {
+    public static final ActivityWithOptionsMenu$LifeCycleBinder INSTANCE = new ActivityWithOptionsMenu$LifeCycleBinder();
+
+    public void bind(LifeCycleAwareCollector<? extends ActivityWithOptionsMenu> collector, final ActivityWithOptionsMenu view) {
+        collector.addLifeCycleAware(view.myObject);
+        collector.addLifeCycleAware(view.search);
+        if (BinderSupport.matchesDevice(collector, DeviceTier.HIGH, false)) {
+            collector.addLifeCycleAware(view.share);
+        }
+        BinderSupport.setHasOptionsMenu(collector);
+    }
+}
@@ -20,6 +20,8 @@ import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
 import it.codingjam.lifecyclebinder.ObjectBinder;
 
 public class MyActivity$LifeCycleBinder extends ObjectBinder<MyActivity, MyActivity> {
+    public static final MyActivity$LifeCycleBinder INSTANCE = new MyActivity$LifeCycleBinder();
+
     public void bind(LifeCycleAwareCollector<? extends MyActivity> collector, final MyActivity view) {
         collector.addLifeCycleAware(view.myObject);
     }
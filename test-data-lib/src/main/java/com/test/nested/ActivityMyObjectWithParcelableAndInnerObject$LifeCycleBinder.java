@@ -20,7 +20,9 @@ import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
 import it.codingjam.lifecyclebinder.ObjectBinder;
 
 public class ActivityMyObjectWithParcelableAndInnerObject$LifeCycleBinder extends ObjectBinder<ActivityMyObjectWithParcelableAndInnerObject, ActivityMyObjectWithParcelableAndInnerObject> {
-    private MyObjectWithParcelableAndInnerObject$LifeCycleBinder myObject = new MyObjectWithParcelableAndInnerObject$LifeCycleBinder();
+    public static final ActivityMyObjectWithParcelableAndInnerObject$LifeCycleBinder INSTANCE = new ActivityMyObjectWithParcelableAndInnerObject$LifeCycleBinder();
+
+    private static final MyObjectWithParcelableAndInnerObject$LifeCycleBinder myObject = MyObjectWithParcelableAndInnerObject$LifeCycleBinder.INSTANCE;
 
     public void bind(LifeCycleAwareCollector<? extends ActivityMyObjectWithParcelableAndInnerObject> collector, final ActivityMyObjectWithParcelableAndInnerObject view) {
         collector.addLifeCycleAware(view.myObject);
@@ -22,8 +22,10 @@ import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
 import it.codingjam.lifecyclebinder.ObjectBinder;
 
 public class MyObjectWithParcelableAndInnerObject$LifeCycleBinder extends ObjectBinder<MyObjectWithParcelableAndInnerObject, MyView> {
+    public static final MyObjectWithParcelableAndInnerObject$LifeCycleBinder INSTANCE = new MyObjectWithParcelableAndInnerObject$LifeCycleBinder();
+
     public void bind(LifeCycleAwareCollector<? extends MyView> collector, final MyObjectWithParcelableAndInnerObject view) {
         collector.addLifeCycleAware(view.myObject);
-        view.myObject2 = collector.addRetainedFactory("myObject2Provider", view.myObject2Provider);
+        view.myObject2 = collector.addRetainedFactory(-1478360565 /* myObject2Provider */, view.myObject2Provider);
     }
 }
@@ -20,12 +20,14 @@ import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
 import it.codingjam.lifecyclebinder.ObjectBinder;
 
 public class ActivityMyObjectWithParcelableAndInnerObject$LifeCycleBinder extends ObjectBinder<ActivityMyObjectWithParcelableAndInnerObject, ActivityMyObjectWithParcelableAndInnerObject> {
-    private MyObjectWithParcelableAndInnerObject$LifeCycleBinder myObjectFactory = new MyObjectWithParcelableAndInnerObject$LifeCycleBinder();
-    private MyObjectWithParcelableAndInnerObject$LifeCycleBinder myObjectFactoryNoField = new MyObjectWithParcelableAndInnerObject$LifeCycleBinder();
+    public static final ActivityMyObjectWithParcelableAndInnerObject$LifeCycleBinder INSTANCE = new ActivityMyObjectWithParcelableAndInnerObject$LifeCycleBinder();
+
+    private static final MyObjectWithParcelableAndInnerObject$LifeCycleBinder myObjectFactory = MyObjectWithParcelableAndInnerObject$LifeCycleBinder.INSTANCE;
+    private static final MyObjectWithParcelableAndInnerObject$LifeCycleBinder myObjectFactoryNoField = MyObjectWithParcelableAndInnerObject$LifeCycleBinder.INSTANCE;
 
     public void bind(LifeCycleAwareCollector<? extends ActivityMyObjectWithParcelableAndInnerObject> collector, final ActivityMyObjectWithParcelableAndInnerObject view) {
-        view.myObject = collector.addRetainedFactory("myObjectFactory", view.myObjectFactory);
+        view.myObject = collector.addRetainedFactory(154360454 /* myObjectFactory */, view.myObjectFactory);
         myObjectFactory.bind(collector, view.myObject);
-        myObjectFactoryNoField.bind(collector, collector.addRetainedFactory("myObjectFactoryNoField", view.myObjectFactoryNoField));
+        myObjectFactoryNoField.bind(collector, collector.addRetainedFactory(-2119772489 /* myObjectFactoryNoField */, view.myObjectFactoryNoField));
     }
 }
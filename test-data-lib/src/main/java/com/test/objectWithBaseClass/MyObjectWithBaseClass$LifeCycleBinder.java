@@ -22,6 +22,8 @@ import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
 import it.codingjam.lifecyclebinder.ObjectBinder;
 
 public class MyObjectWithBaseClass$LifeCycleBinder extends ObjectBinder<MyObjectWithBaseClass, MyView> {
+    public static final MyObjectWithBaseClass$LifeCycleBinder INSTANCE = new MyObjectWithBaseClass$LifeCycleBinder();
+
     public void bind(LifeCycleAwareCollector<? extends MyView> collector, final MyObjectWithBaseClass view) {
         collector.addLifeCycleAware(view.myObject);
     }
@@ -22,6 +22,8 @@ import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
 import it.codingjam.lifecyclebinder.ObjectBinder;
 
 public class MyObjectWithGenericBaseClass$LifeCycleBinder extends ObjectBinder<MyObjectWithGenericBaseClass, MyView> {
+    public static final MyObjectWithGenericBaseClass$LifeCycleBinder INSTANCE = new MyObjectWithGenericBaseClass$LifeCycleBinder();
+
     public void bind(LifeCycleAwareCollector<? extends MyView> collector, final MyObjectWithGenericBaseClass view) {
         collector.addLifeCycleAware(view.myObject);
     }
@@ -22,6 +22,8 @@ import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
 import it.codingjam.lifecyclebinder.ObjectBinder;
 
 public class MyGenericBaseClass$LifeCycleBinder<T extends MyView> extends ObjectBinder<MyGenericBaseClass<T>, T> {
+  public static final MyGenericBaseClass$LifeCycleBinder<?> INSTANCE = new MyGenericBaseClass$LifeCycleBinder<>();
+
   public void bind(LifeCycleAwareCollector<? extends T> collector, final MyGenericBaseClass<T> view) {
     collector.addLifeCycleAware(view.myBaseObject);
   }
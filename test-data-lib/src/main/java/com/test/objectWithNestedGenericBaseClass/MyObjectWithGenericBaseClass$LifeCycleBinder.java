@@ -22,7 +22,9 @@ import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
 import it.codingjam.lifecyclebinder.ObjectBinder;
 
 public class MyObjectWithGenericBaseClass$LifeCycleBinder extends ObjectBinder<MyObjectWithGenericBaseClass, MyView> {
-    private MyGenericBaseClass$LifeCycleBinder<MyView> superClass$lifeCycleBinder = new MyGenericBaseClass$LifeCycleBinder<MyView>();
+    public static final MyObjectWithGenericBaseClass$LifeCycleBinder INSTANCE = new MyObjectWithGenericBaseClass$LifeCycleBinder();
+
+    private static final MyGenericBaseClass$LifeCycleBinder<MyView> superClass$lifeCycleBinder = new MyGenericBaseClass$LifeCycleBinder<MyView>();
 
     public void bind(LifeCycleAwareCollector<? extends MyView> collector, final MyObjectWithGenericBaseClass view) {
         collector.addLifeCycleAware(view.myObject);
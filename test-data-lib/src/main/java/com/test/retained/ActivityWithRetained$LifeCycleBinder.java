@@ -20,7 +20,9 @@ import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
 import it.codingjam.lifecyclebinder.ObjectBinder;
 
 public class ActivityWithRetained$LifeCycleBinder extends ObjectBinder<ActivityWithRetained, ActivityWithRetained> {
+    public static final ActivityWithRetained$LifeCycleBinder INSTANCE = new ActivityWithRetained$LifeCycleBinder();
+
     public void bind(LifeCycleAwareCollector<? extends ActivityWithRetained> collector, final ActivityWithRetained view) {
-        collector.addRetainedFactory("myObjectProvider", view.myObjectProvider);
+        collector.addRetainedFactory(1004685957 /* myObjectProvider */, view.myObjectProvider);
     }
 }
@@ -20,8 +20,10 @@ import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
 import it.codingjam.lifecyclebinder.ObjectBinder;
 
 public class ActivityWithRetained2$LifeCycleBinder extends ObjectBinder<ActivityWithRetained2, ActivityWithRetained2> {
+    public static final ActivityWithRetained2$LifeCycleBinder INSTANCE = new ActivityWithRetained2$LifeCycleBinder();
+
     public void bind(LifeCycleAwareCollector<? extends ActivityWithRetained2> collector, final ActivityWithRetained2 view) {
-        collector.addRetainedFactory("myObject", view.myObject);
-        collector.addRetainedFactory("myObject2", view.myObject2);
+        collector.addRetainedFactory(-1558686808 /* myObject */, view.myObject);
+        collector.addRetainedFactory(1498127214 /* myObject2 */, view.myObject2);
     }
 }
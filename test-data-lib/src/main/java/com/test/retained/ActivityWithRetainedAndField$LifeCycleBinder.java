@@ -4,7 +4,9 @@ import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
 import it.codingjam.lifecyclebinder.ObjectBinder;
 
 public class ActivityWithRetainedAndField$LifeCycleBinder extends ObjectBinder<ActivityWithRetainedAndField, ActivityWithRetainedAndField> {
+    public static final ActivityWithRetainedAndField$LifeCycleBinder INSTANCE = new ActivityWithRetainedAndField$LifeCycleBinder();
+
     public void bind(LifeCycleAwareCollector<? extends ActivityWithRetainedAndField> collector, final ActivityWithRetainedAndField view) {
-        view.myObject = collector.addRetainedFactory("myObjectProvider", view.myObjectProvider);
+        view.myObject = collector.addRetainedFactory(1004685957 /* myObjectProvider */, view.myObjectProvider);
     }
 }
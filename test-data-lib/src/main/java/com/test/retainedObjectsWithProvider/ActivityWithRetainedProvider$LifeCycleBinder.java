@@ -25,8 +25,10 @@ import it.codingjam.lifecyclebinder.ObjectBinder;
 import java.util.concurrent.Callable;
 
 public class ActivityWithRetainedProvider$LifeCycleBinder extends ObjectBinder<ActivityWithRetainedProvider, ActivityWithRetainedProvider> {
+    public static final ActivityWithRetainedProvider$LifeCycleBinder INSTANCE = new ActivityWithRetainedProvider$LifeCycleBinder();
+
     public void bind(LifeCycleAwareCollector<? extends ActivityWithRetainedProvider> collector, final ActivityWithRetainedProvider view) {
-        collector.addRetainedFactory("myObject", new Callable<MyObject>() {
+        collector.addRetainedFactory(-1558686808 /* myObject */, new Callable<MyObject>() {
             @Override
             public MyObject call() throws Exception {
                 return view.myObject.get();
@@ -0,0 +1,48 @@
+/*
+ *   Copyright 2016 Fabio Collini.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.test.trace;
+
+import android.support.v4.os.TraceCompat;
+import com.test.MyObject;
+import it.codingjam.lifecyclebinder.LifeCycleAwareCollector;
+import it.codingjam.lifecyclebinder.LifeCycleEvents;
+import it.codingjam.lifecyclebinder.ObjectBinder;
+
+public class ActivityWithTrace$LifeCycleBinder extends ObjectBinder<ActivityWithTrace, ActivityWithTrace> {
+    public static final ActivityWithTrace$LifeCycleBinder INSTANCE = new ActivityWithTrace$LifeCycleBinder();
+
+    public void bind(LifeCycleAwareCollector<? extends ActivityWithTrace> collector, final ActivityWithTrace view) {
+        TraceCompat.beginSection("ActivityWithTrace.myObject");
+        try {
+            collector.addLifeCycleAware(view.myObject);
+        } finally {
+            TraceCompat.endSection();
+        }
+        TraceCompat.beginSection("ActivityWithTrace.retainedObjectFactory");
+        try {
+            view.retainedObject = collector.addRetainedFactory(364012884 /* retainedObjectFactory */, view.retainedObjectFactory);
+        } finally {
+            TraceCompat.endSection();
+        }
+        TraceCompat.beginSection("ActivityWithTrace.deferredObject");
+        try {
+            collector.addDeferredLifeCycleAware(view.deferredObject, MyObject.class, LifeCycleEvents.ALL);
+        } finally {
+            TraceCompat.endSection();
+        }
+    }
+}